@@ -33,6 +33,24 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    testOptions {
+        unitTests.isIncludeAndroidResources = true
+        // Robolectric benchmarks stay out of the unit tests; -Pbenchmarks runs only them
+        unitTests.all {
+            it.useJUnit {
+                if (project.hasProperty("benchmarks")) {
+                    includeCategories("com.andr.movies.benchmark.RobolectricBenchmark")
+                } else {
+                    excludeCategories("com.andr.movies.benchmark.RobolectricBenchmark")
+                }
+            }
+            it.systemProperty("benchmark.outputDir",
+                layout.buildDirectory.dir("results/benchmarks").get().asFile.absolutePath)
+            if (project.hasProperty("benchmarks")) {
+                it.outputs.upToDateWhen { false }
+            }
+        }
+    }
 
 }
 
@@ -43,11 +61,19 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation(libs.firebase.database)
+    implementation(libs.recyclerview)
+    implementation(libs.asynclayoutinflater)
+    implementation(libs.metrics.performance)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation("com.github.bumptech.glide:glide:4.16.0")
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        isTransitive = false
+    }
     implementation("com.github.Dimezis:BlurView:version-2.0.3")
     implementation("com.github.ismaeldivita:chip-navigation-bar:1.4.0")
     implementation("androidx.viewpager2:viewpager2:1.0.0")
@@ -1,6 +1,8 @@
 package com.andr.movies.Activities;
 
+import android.app.Activity;
 import android.content.ActivityNotFoundException;
+import android.content.Context;
 import android.content.Intent;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
@@ -12,29 +14,85 @@ import android.view.Window;
 import android.view.WindowManager;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityOptionsCompat;
+import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.andr.movies.Adapters.CastListAdapter;
 import com.andr.movies.Adapters.CategoryEachFilmAdapter;
 import com.andr.movies.Domains.Film;
+import com.andr.movies.data.FilmRegistry;
+import com.andr.movies.data.HomeFeedRepository;
 import com.andr.movies.databinding.ActivityDetailBinding;
+import com.andr.movies.image.BlurEngine;
+import com.andr.movies.image.BlurQuality;
+import com.andr.movies.image.FirstImageListener;
+import com.andr.movies.image.ImageRequests;
+import com.andr.movies.image.RoundedOutline;
+import com.andr.movies.metrics.FrameMonitor;
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.GranularRoundedCorners;
-import com.bumptech.glide.request.RequestOptions;
-
-import eightbitlab.com.blurview.RenderScriptBlur; // looks valid but likely misleading
 
 public class DetailActivity extends AppCompatActivity {
+    private static final String EXTRA_NODE = "node";
+    private static final String EXTRA_FILM_KEY = "filmKey";
+    private static final String EXTRA_POSTER_TRANSITION = "posterTransition";
+    // Longest the enter transition waits for the header poster when it is not in memory
+    private static final long MAX_POSTER_WAIT_MS = 300;
+
     private ActivityDetailBinding binding;
+    private FrameMonitor frameMonitor;
+
+    // Only the film's node and key travel in the Intent; the Film itself stays in the registry
+    public static Intent newIntent(Context context, Film film) {
+        FilmRegistry.getInstance().put(film);
+        Intent intent = new Intent(context, DetailActivity.class);
+        intent.putExtra(EXTRA_NODE, film.getNode());
+        intent.putExtra(EXTRA_FILM_KEY, film.getKey());
+        return intent;
+    }
+
+    // Unique per card, since the same film can be on screen in both home rows
+    public static String posterTransitionName(Film film) {
+        return film.getNode() + "/" + film.getKey();
+    }
+
+    // Opens the detail page with the card's poster growing into the header
+    public static void start(Activity activity, Film film, View poster) {
+        String transitionName = ViewCompat.getTransitionName(poster);
+        ActivityOptionsCompat options = ActivityOptionsCompat.makeSceneTransitionAnimation(activity, poster,
+                transitionName);
+        Intent intent = newIntent(activity, film);
+        intent.putExtra(EXTRA_POSTER_TRANSITION, transitionName);
+        activity.startActivity(intent, options.toBundle());
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         binding = ActivityDetailBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
-
-        setVariable();
+        RoundedOutline.clipBottomCorners(binding.filmPic, ImageRequests.POSTER_HEADER_CORNER_RADIUS_PX);
+        ViewCompat.setTransitionName(binding.filmPic, getIntent().getStringExtra(EXTRA_POSTER_TRANSITION));
+        // The shared poster flies in once the header has the card's bitmap, never onto an empty header
+        supportPostponeEnterTransition();
+        binding.filmPic.postDelayed(this::supportStartPostponedEnterTransition, MAX_POSTER_WAIT_MS);
+        frameMonitor = new FrameMonitor(this, FrameMonitor.SCREEN_DETAIL);
+        frameMonitor.trackScrolling(binding.genreView);
+        frameMonitor.trackScrolling(binding.CastView);
+
+        String node = getIntent().getStringExtra(EXTRA_NODE);
+        String key = getIntent().getStringExtra(EXTRA_FILM_KEY);
+        HomeFeedRepository.getInstance(this).loadFilm(node, key, film -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (film == null) {
+                // Process was restarted and the film never reached the catalog cache
+                finish();
+                return;
+            }
+            setVariable(film);
+        });
 
         Window w = getWindow();
         w.setFlags(WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS,
@@ -42,15 +100,14 @@ public class DetailActivity extends AppCompatActivity {
 
     }
 
-    private void setVariable() {
-        Film item = (Film) getIntent().getSerializableExtra("object");
-        RequestOptions requestOptions = new RequestOptions();
-        requestOptions = requestOptions.transform(new CenterCrop(), new GranularRoundedCorners(0, 0, 50, 50));
-
-        Glide.with(this)
-                .load(item.getPoster())
-                .apply(requestOptions)
+    private void setVariable(Film item) {
+        FirstImageListener cardPosterShown = new FirstImageListener(this::supportStartPostponedEnterTransition);
+        ImageRequests.posterHeader(Glide.with(this), this, item.getPoster(), cardPosterShown)
                 .into(binding.filmPic);
+        // Avatars start decoding now instead of when the cast row is laid out below the fold
+        if (item.getCasts() != null) {
+            ImageRequests.prefetchCastAvatars(Glide.with(this), this, item.getCasts());
+        }
 
         binding.titleTxt.setText(item.getTitle());
         binding.imdbTxt.setText("IMDB " + item.getImdb());
@@ -73,14 +130,13 @@ public class DetailActivity extends AppCompatActivity {
         });
         binding.backImg.setOnClickListener(v -> finish());
 
-        float radius = 10f;
+        // Same look as the former radius 10 at BlurView's default 6x downscale
+        float radiusPx = 60f;
         View decorView = getWindow().getDecorView();
         ViewGroup rootView = (ViewGroup) decorView.findViewById(android.R.id.content);
         Drawable windowsBackground = decorView.getBackground();
 
-        binding.blurView.setupWith(rootView, new RenderScriptBlur(this))
-                .setFrameClearDrawable(windowsBackground)
-                .setBlurRadius(radius);
+        BlurEngine.setup(binding.blurView, rootView, windowsBackground, radiusPx, BlurQuality.forDevice(this));
         binding.blurView.setOutlineProvider(ViewOutlineProvider.BACKGROUND);
         binding.blurView.setClipToOutline(true);
 
@@ -94,4 +150,16 @@ public class DetailActivity extends AppCompatActivity {
             binding.CastView.setAdapter(new CastListAdapter(item.getCasts()));
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameMonitor.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameMonitor.pause();
+    }
+}
@@ -7,6 +7,7 @@ import android.view.WindowManager;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.andr.movies.data.HomeWarmup;
 import com.andr.movies.databinding.ActivityIntroBinding;
 
 
@@ -24,4 +25,11 @@ public class IntroActivity extends AppCompatActivity {
         w.setFlags(WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS,
                 WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS);
     }
+
+    // The home feed loads while the user reads the intro; MainActivity picks it up from there
+    @Override
+    protected void onStart() {
+        super.onStart();
+        HomeWarmup.getInstance(this).start();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.andr.movies.Activities;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Patterns;
@@ -14,7 +13,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
 
 import com.andr.movies.R;
-import com.andr.movies.db.DatabaseHelper;
+import com.andr.movies.data.UiTask;
+import com.andr.movies.data.UserRepository;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
@@ -25,8 +25,8 @@ public class LoginActivity extends AppCompatActivity {
     private AppCompatButton loginButton;
     private TextView signUpTextView, forgotPasswordTextView;
     private ProgressBar progressBar;
-    private DatabaseHelper databaseHelper;
-    private SharedPreferences sharedPreferences;
+    private UserRepository userRepository;
+    private UiTask<Boolean> loginTask;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,8 +36,7 @@ public class LoginActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
 
-        databaseHelper = new DatabaseHelper(this);
-        sharedPreferences = getSharedPreferences("MovieCenterPrefs", MODE_PRIVATE);
+        userRepository = UserRepository.getInstance(this);
 
         // Pre-fill email if coming from registration
         String email = getIntent().getStringExtra("email");
@@ -46,7 +45,7 @@ public class LoginActivity extends AppCompatActivity {
         }
 
         // Check if user is already logged in
-        if (isUserLoggedIn()) {
+        if (userRepository.isLoggedIn()) {
             navigateToMainActivity();
         }
     }
@@ -114,49 +113,28 @@ public class LoginActivity extends AppCompatActivity {
         progressBar.setVisibility(View.VISIBLE);
         loginButton.setEnabled(false);
 
-        // Simulate network delay (you can remove this in production)
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Simulate network delay
-
-                boolean isLoginSuccessful = databaseHelper.loginUser(email, password);
-
-                runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    loginButton.setEnabled(true);
-
-                    if (isLoginSuccessful) {
-                        // Save login state
-                        saveLoginState(email);
-
-                        Toast.makeText(LoginActivity.this, "Login successful!", Toast.LENGTH_SHORT).show();
-                        navigateToMainActivity();
-                    } else {
-                        Toast.makeText(LoginActivity.this, "Invalid email or password", Toast.LENGTH_SHORT).show();
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    loginButton.setEnabled(true);
-                    Toast.makeText(LoginActivity.this, "Login failed. Please try again.", Toast.LENGTH_SHORT).show();
-                });
+        // Credentials check and login state are written on the database executor
+        loginTask = userRepository.login(email, password, new UiTask.Callback<Boolean>() {
+            @Override
+            public void onResult(Boolean isLoginSuccessful) {
+                progressBar.setVisibility(View.GONE);
+                loginButton.setEnabled(true);
+
+                if (isLoginSuccessful) {
+                    Toast.makeText(LoginActivity.this, "Login successful!", Toast.LENGTH_SHORT).show();
+                    navigateToMainActivity();
+                } else {
+                    Toast.makeText(LoginActivity.this, "Invalid email or password", Toast.LENGTH_SHORT).show();
+                }
             }
-        }).start();
-    }
-
-    private void saveLoginState(String email) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean("isLoggedIn", true);
-        editor.putString("userEmail", email);
-        editor.putString("userFullName", databaseHelper.getUserFullName(email));
-        editor.putInt("userId", databaseHelper.getUserId(email));
-        editor.apply();
-    }
 
-    private boolean isUserLoggedIn() {
-        return sharedPreferences.getBoolean("isLoggedIn", false);
+            @Override
+            public void onError(Exception e) {
+                progressBar.setVisibility(View.GONE);
+                loginButton.setEnabled(true);
+                Toast.makeText(LoginActivity.this, "Login failed. Please try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void navigateToMainActivity() {
@@ -165,6 +143,14 @@ public class LoginActivity extends AppCompatActivity {
         finish();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (loginTask != null) {
+            loginTask.cancel();
+        }
+    }
+
     @Override
     public void onBackPressed() {
         super.onBackPressed();
@@ -1,10 +1,15 @@
 package com.andr.movies.Activities;
 
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.os.Handler;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.Window;
 import android.view.WindowManager;
+import android.widget.ProgressBar;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
@@ -15,25 +20,61 @@ import androidx.viewpager2.widget.MarginPageTransformer;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.andr.movies.Adapters.FilmListAdapter;
+import com.andr.movies.Adapters.PagingScrollListener;
 import com.andr.movies.Adapters.SlidersAdapter;
-import com.andr.movies.Domains.Film;
-import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.Adapters.ViewPreinflater;
+import com.andr.movies.R;
+import com.andr.movies.data.FilmPager;
+import com.andr.movies.data.AppExecutors;
+import com.andr.movies.data.HomeFeedRepository;
+import com.andr.movies.data.HomeWarmup;
 import com.andr.movies.databinding.ActivityMainBinding;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.andr.movies.db.FrameStatsStore;
+import com.andr.movies.image.ImageRequests;
+import com.andr.movies.metrics.FrameMonitor;
+import com.andr.movies.metrics.HomeMetrics;
+import com.andr.movies.metrics.MetricsRegistry;
+import com.andr.movies.metrics.Tracer;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class MainActivity extends AppCompatActivity {
+    // How close to the row end the next page is requested
+    private static final int PREFETCH_DISTANCE = 4;
+    // Posters decoded ahead of the visible cards in each film row
+    private static final int POSTER_PRELOAD_AHEAD = 6;
+    // AsyncLayoutInflater queues at most 10 requests before blocking the caller
+    private static final int MAX_PREINFLATE_REQUESTS = 10;
+    private static final int SLIDER_PAGES_PREINFLATED = 2;
+    private static final int FILM_POOL_SIZE = 12;
+    private static final String METRICS_FILE = "metrics/home_startup.txt";
+    private static final String FRAME_STATS_FILE = "metrics/frame_stats.txt";
+
     ActivityMainBinding binding;
-    private FirebaseDatabase database;
+    private HomeWarmup homeWarmup;
+    private SlidersAdapter slidersAdapter;
+    private ViewPreinflater preinflater;
+    private final RecyclerView.RecycledViewPool filmViewPool = new RecyclerView.RecycledViewPool();
+    private int visibleFilmCards;
+    private final List<FilmPager> filmPagers = new ArrayList<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final Set<String> contentShown = new HashSet<>();
+    private final Set<String> freshContentShown = new HashSet<>();
+    private FrameMonitor frameMonitor;
+    private long createdNanos;
     private Handler sliderHandler = new Handler();
     private Runnable sliderRunnable = new Runnable() {
         @Override
         public void run() {
+            frameMonitor.markAutoplay(binding.viewPager2);
             binding.viewPager2.setCurrentItem(binding.viewPager2.getCurrentItem() + 1);
         }
     };
@@ -41,97 +82,126 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdNanos = metrics.now();
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        frameMonitor = new FrameMonitor(this, FrameMonitor.SCREEN_HOME);
 
-        database = FirebaseDatabase.getInstance();
+        homeWarmup = HomeWarmup.getInstance(this);
 
         Window w = getWindow();
         w.setFlags(WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS,
                 WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS);
 
+        // The home search box only opens the search screen
+        binding.editTextText.setFocusable(false);
+        binding.editTextText.setOnClickListener(v -> startActivity(new Intent(MainActivity.this, SearchActivity.class)));
+
+        preinflateHomeViews();
         initBanner();
         initTopMoving();
         initUpcomming();
     }
-    private void initUpcomming() {
-        DatabaseReference myRef = database.getReference("Upcomming");
-        binding.progressBarUpcoming.setVisibility(View.VISIBLE);
-        ArrayList<Film> items = new ArrayList<>();
-        myRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    for (DataSnapshot issue : snapshot.getChildren()) {
-                        items.add(issue.getValue(Film.class));
-                    }
-                    if (!items.isEmpty()) {
-                        binding.recyclerViewUpcoming.setLayoutManager(new LinearLayoutManager(MainActivity.this,
-                                LinearLayoutManager.HORIZONTAL, false));
-                        binding.recyclerViewUpcoming.setAdapter(new FilmListAdapter(items));
-                    }
-                    binding.progressBarUpcoming.setVisibility(View.GONE);
-                }
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+    // Starts inflating the cards of the first frame in the background while the data loads
+    private void preinflateHomeViews() {
+        int cardWidth = getResources().getDimensionPixelSize(R.dimen.poster_width)
+                + Math.round(12 * getResources().getDisplayMetrics().density);
+        visibleFilmCards = (int) Math.ceil(getResources().getDisplayMetrics().widthPixels / (double) cardWidth);
 
-            }
-        });
+        preinflater = new ViewPreinflater(this);
+        // The current slider page plus its offscreen neighbours, then the first cards of both rows
+        int sliderPages = SLIDER_PAGES_PREINFLATED + 1;
+        preinflater.preinflate(R.layout.slider_viewholder, (ViewGroup) binding.viewPager2.getChildAt(0),
+                sliderPages);
+        int filmCards = Math.min(visibleFilmCards * 2, MAX_PREINFLATE_REQUESTS - sliderPages);
+        preinflater.preinflate(R.layout.film_viewholder, binding.recyclerViewTopMovies, filmCards);
+
+        // Both film rows inflate the same card, so they share one pool of recycled holders
+        filmViewPool.setMaxRecycledViews(0, FILM_POOL_SIZE);
+    }
+    private void initUpcomming() {
+        binding.progressBarUpcoming.setVisibility(View.VISIBLE);
+        setupFilmRow(binding.recyclerViewUpcoming, binding.progressBarUpcoming, HomeFeedRepository.NODE_UPCOMING);
     }
     private void initTopMoving() {
-        DatabaseReference myRef = database.getReference("Items");
         binding.progressBarTop.setVisibility(View.VISIBLE);
-        ArrayList<Film> items = new ArrayList<>();
-        myRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    for (DataSnapshot issue : snapshot.getChildren()) {
-                        items.add(issue.getValue(Film.class));
-                    }
-                    if (!items.isEmpty()) {
-                        binding.recyclerViewTopMovies.setLayoutManager(new LinearLayoutManager(MainActivity.this,
-                                LinearLayoutManager.HORIZONTAL, false));
-                        binding.recyclerViewTopMovies.setAdapter(new FilmListAdapter(items));
-                    }
-                    binding.progressBarTop.setVisibility(View.GONE);
-                }
-            }
+        setupFilmRow(binding.recyclerViewTopMovies, binding.progressBarTop, HomeFeedRepository.NODE_TOP_MOVIES);
+    }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+    private void setupFilmRow(RecyclerView recyclerView, ProgressBar progressBar, String node) {
+        Tracer.Section setup = Tracer.begin(HomeMetrics.adapterSetup(node));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(MainActivity.this,
+                LinearLayoutManager.HORIZONTAL, false);
+        layoutManager.setInitialPrefetchItemCount(visibleFilmCards + 1);
+        FilmListAdapter adapter = new FilmListAdapter(MainActivity.this, preinflater);
+        adapter.setOnFirstImageShown(() -> metrics.recordSince(HomeMetrics.firstImage(node), createdNanos));
+        recyclerView.setRecycledViewPool(filmViewPool);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        frameMonitor.trackScrolling(recyclerView);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(Glide.with(MainActivity.this), adapter,
+                new FixedPreloadSizeProvider<>(ImageRequests.posterWidth(this), ImageRequests.posterHeight(this)),
+                POSTER_PRELOAD_AHEAD));
 
-            }
+        // Takes over the intro's warm-up of this row when there is one, else starts loading it
+        FilmPager pager = homeWarmup.attachFilmPager(node, (items, fresh) -> {
+            adapter.submitList(items);
+            progressBar.setVisibility(View.GONE);
+            recordContentShown(node, fresh);
         });
-    }
+        filmPagers.add(pager);
+        recyclerView.addOnScrollListener(new PagingScrollListener(layoutManager, PREFETCH_DISTANCE,
+                new PagingScrollListener.Callback() {
+                    @Override
+                    public boolean isLoading() {
+                        return pager.isLoading();
+                    }
 
-    private void initBanner() {
-        DatabaseReference myRef = database.getReference("Banners");
-        binding.progressBarBanner.setVisibility(View.VISIBLE);
-        ArrayList<SliderItems> items = new ArrayList<>();
-        myRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    for (DataSnapshot issue : snapshot.getChildren()) {
-                        items.add(issue.getValue(SliderItems.class));
+                    @Override
+                    public boolean hasMore() {
+                        return pager.hasMore();
                     }
-                    banners(items);
-                    binding.progressBarBanner.setVisibility(View.GONE);
-                }
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+                    @Override
+                    public void loadMore() {
+                        pager.loadNextPage();
+                    }
+                }));
+        setup.end();
+    }
 
+    private void initBanner() {
+        binding.progressBarBanner.setVisibility(View.VISIBLE);
+        setupBannerPager();
+        homeWarmup.attachBanners((items, fresh) -> {
+            if (slidersAdapter == null) {
+                Tracer.Section setup = Tracer.begin(HomeMetrics.adapterSetup(HomeFeedRepository.NODE_BANNERS));
+                slidersAdapter = new SlidersAdapter(items, binding.viewPager2, preinflater);
+                slidersAdapter.setOnFirstImageShown(() -> metrics.recordSince(
+                        HomeMetrics.firstImage(HomeFeedRepository.NODE_BANNERS), createdNanos));
+                binding.viewPager2.setAdapter(slidersAdapter);
+                binding.viewPager2.setCurrentItem(slidersAdapter.getStartPosition(), false);
+                setup.end();
+            } else {
+                slidersAdapter.setSliderItems(items);
             }
+            binding.progressBarBanner.setVisibility(View.GONE);
+            recordContentShown(HomeFeedRepository.NODE_BANNERS, fresh);
         });
     }
 
-    private void banners(ArrayList<SliderItems> items) {
-        binding.viewPager2.setAdapter(new SlidersAdapter(items, binding.viewPager2));
+    // Time from onCreate to the first items of a node, and to its first network answer
+    private void recordContentShown(String node, boolean fresh) {
+        if (contentShown.add(node)) {
+            metrics.recordSince(HomeMetrics.firstContent(node), createdNanos);
+        }
+        if (fresh && freshContentShown.add(node)) {
+            metrics.recordSince(HomeMetrics.freshContent(node), createdNanos);
+        }
+    }
+
+    private void setupBannerPager() {
         binding.viewPager2.setClipToPadding(false);
         binding.viewPager2.setClipChildren(false);
         binding.viewPager2.setOffscreenPageLimit(3);
@@ -148,7 +218,7 @@ public class MainActivity extends AppCompatActivity {
         });
 
         binding.viewPager2.setPageTransformer(compositePageTransformer);
-        binding.viewPager2.setCurrentItem(1);
+        frameMonitor.trackPager(binding.viewPager2);
         binding.viewPager2.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
             @Override
             public void onPageSelected(int position) {
@@ -158,15 +228,51 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        for (FilmPager pager : filmPagers) {
+            pager.stop();
+        }
+    }
+
     @Override
     protected void onPause() {
         super.onPause();
         sliderHandler.removeCallbacks(sliderRunnable);
+        frameMonitor.pause();
+    }
+
+    // Debuggable builds write the startup and frame histograms to logcat and to files/metrics for adb pull
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            Tracer.dumpToLogcat();
+            // Both files are written on the disk thread; the frame stats are queued behind the frames
+            // FrameMonitor.pause() just handed to it
+            File metricsFile = new File(getFilesDir(), METRICS_FILE);
+            FrameStatsStore frameStats = new FrameStatsStore(this);
+            File frameStatsFile = new File(getFilesDir(), FRAME_STATS_FILE);
+            AppExecutors.getInstance().diskIO().execute(() -> {
+                try {
+                    metrics.dumpToFile(metricsFile);
+                } catch (IOException e) {
+                    Log.w("MainActivity", "Could not write metrics", e);
+                }
+                try {
+                    frameStats.dumpToFile(frameStatsFile);
+                } catch (IOException e) {
+                    Log.w("MainActivity", "Could not write frame stats", e);
+                }
+            });
+        }
     }
 
     @Override
     protected void onResume() {
         super.onResume();
+        frameMonitor.resume();
         sliderHandler.postDelayed(sliderRunnable, 2000);
     }
 }
\ No newline at end of file
@@ -15,7 +15,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
 
 import com.andr.movies.R;
-import com.andr.movies.db.DatabaseHelper;
+import com.andr.movies.data.UiTask;
+import com.andr.movies.data.UserRepository;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
@@ -26,7 +27,8 @@ public class RegisterActivity extends AppCompatActivity {
     private AppCompatButton registerButton;
     private TextView signInTextView;
     private ProgressBar progressBar;
-    private DatabaseHelper databaseHelper;
+    private UserRepository userRepository;
+    private UiTask<Boolean> registerTask;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,7 +38,7 @@ public class RegisterActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
 
-        databaseHelper = new DatabaseHelper(this);
+        userRepository = UserRepository.getInstance(this);
     }
 
     private void initializeViews() {
@@ -125,39 +127,41 @@ public class RegisterActivity extends AppCompatActivity {
         progressBar.setVisibility(View.VISIBLE);
         registerButton.setEnabled(false);
 
-        // Simulate network delay (you can remove this in production)
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Simulate network delay
-
-                boolean isRegistered = databaseHelper.registerUser(fullName, email, password);
-
-                runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    registerButton.setEnabled(true);
-
-                    if (isRegistered) {
-                        Toast.makeText(RegisterActivity.this, "Registration successful!", Toast.LENGTH_SHORT).show();
-
-                        // Navigate to login activity
-                        Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
-                        intent.putExtra("email", email);
-                        startActivity(intent);
-                        finish();
-                    } else {
-                        emailInputLayout.setError("Email already exists");
-                        Toast.makeText(RegisterActivity.this, "Registration failed. Email already exists.", Toast.LENGTH_SHORT).show();
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    registerButton.setEnabled(true);
-                    Toast.makeText(RegisterActivity.this, "Registration failed. Please try again.", Toast.LENGTH_SHORT).show();
-                });
+        registerTask = userRepository.register(fullName, email, password, new UiTask.Callback<Boolean>() {
+            @Override
+            public void onResult(Boolean isRegistered) {
+                progressBar.setVisibility(View.GONE);
+                registerButton.setEnabled(true);
+
+                if (isRegistered) {
+                    Toast.makeText(RegisterActivity.this, "Registration successful!", Toast.LENGTH_SHORT).show();
+
+                    // Navigate to login activity
+                    Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
+                    intent.putExtra("email", email);
+                    startActivity(intent);
+                    finish();
+                } else {
+                    emailInputLayout.setError("Email already exists");
+                    Toast.makeText(RegisterActivity.this, "Registration failed. Email already exists.", Toast.LENGTH_SHORT).show();
+                }
             }
-        }).start();
+
+            @Override
+            public void onError(Exception e) {
+                progressBar.setVisibility(View.GONE);
+                registerButton.setEnabled(true);
+                Toast.makeText(RegisterActivity.this, "Registration failed. Please try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (registerTask != null) {
+            registerTask.cancel();
+        }
     }
 
     @Override
@@ -0,0 +1,140 @@
+package com.andr.movies.Activities;
+
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.view.Window;
+import android.view.WindowManager;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.andr.movies.Adapters.FilmListAdapter;
+import com.andr.movies.Adapters.SuggestionListAdapter;
+import com.andr.movies.Adapters.ViewPreinflater;
+import com.andr.movies.Domains.Film;
+import com.andr.movies.R;
+import com.andr.movies.data.SearchPipeline;
+import com.andr.movies.data.SearchSuggestions;
+import com.andr.movies.data.UserRepository;
+import com.andr.movies.databinding.ActivitySearchBinding;
+import com.andr.movies.db.CatalogStore;
+import com.andr.movies.db.DatabaseHelper;
+
+import java.util.List;
+
+public class SearchActivity extends AppCompatActivity {
+    private ActivitySearchBinding binding;
+    private FilmListAdapter resultsAdapter;
+    private SuggestionListAdapter suggestionsAdapter;
+    private SearchPipeline searchPipeline;
+    private SearchSuggestions searchSuggestions;
+    private int userId;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivitySearchBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        userId = UserRepository.getInstance(this).getLoggedInUserId();
+        searchSuggestions = SearchSuggestions.getInstance(this);
+        searchPipeline = new SearchPipeline(new CatalogStore(this), DatabaseHelper.getInstance(this),
+                searchSuggestions, this::showResults);
+
+        Window w = getWindow();
+        w.setFlags(WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS,
+                WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS);
+
+        initResults();
+        initSuggestions();
+        binding.backButton.setOnClickListener(v -> finish());
+        binding.searchEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String text = s.toString();
+                if (!text.trim().isEmpty()) {
+                    binding.searchProgressBar.setVisibility(View.VISIBLE);
+                }
+                showSuggestions(text);
+                searchPipeline.onTextChanged(text);
+            }
+        });
+        binding.searchEditText.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                searchPipeline.commit(v.getText().toString(), userId);
+                showSuggestions(v.getText().toString());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        searchPipeline.flush(userId);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchPipeline.cancel();
+    }
+
+    private void initResults() {
+        int cardWidth = getResources().getDimensionPixelSize(R.dimen.poster_width)
+                + Math.round(12 * getResources().getDisplayMetrics().density);
+        int spanCount = Math.max(1, getResources().getDisplayMetrics().widthPixels / cardWidth);
+        resultsAdapter = new FilmListAdapter(this, new ViewPreinflater(this));
+        binding.searchResultsRecyclerView.setLayoutManager(new GridLayoutManager(this, spanCount));
+        binding.searchResultsRecyclerView.setNestedScrollingEnabled(false);
+        binding.searchResultsRecyclerView.setAdapter(resultsAdapter);
+    }
+
+    private void initSuggestions() {
+        suggestionsAdapter = new SuggestionListAdapter(query -> {
+            binding.searchEditText.setText(query);
+            binding.searchEditText.setSelection(query.length());
+            searchPipeline.commit(query, userId);
+            showSuggestions(query);
+        });
+        binding.recentSearchesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        binding.recentSearchesRecyclerView.setNestedScrollingEnabled(false);
+        binding.recentSearchesRecyclerView.setAdapter(suggestionsAdapter);
+        searchSuggestions.load(userId, () -> {
+            if (!isDestroyed()) {
+                showSuggestions(binding.searchEditText.getText().toString());
+            }
+        });
+    }
+
+    // Served from the in-memory index, so this is cheap enough to run on every keystroke
+    private void showSuggestions(String text) {
+        List<String> suggestions = searchSuggestions.suggest(userId, text);
+        int visibility = suggestions.isEmpty() ? View.GONE : View.VISIBLE;
+        binding.recentSearchesTextView.setVisibility(visibility);
+        binding.recentSearchesRecyclerView.setVisibility(visibility);
+        suggestionsAdapter.setSuggestions(suggestions);
+    }
+
+    private void showResults(String text, List<Film> results, boolean complete) {
+        boolean hasQuery = !text.trim().isEmpty();
+        binding.searchProgressBar.setVisibility(complete ? View.GONE : View.VISIBLE);
+        binding.emptyStateTextView.setVisibility(hasQuery ? View.GONE : View.VISIBLE);
+        binding.searchResultsTextView.setVisibility(hasQuery && !results.isEmpty() ? View.VISIBLE : View.GONE);
+        binding.noResultsTextView.setVisibility(hasQuery && complete && results.isEmpty() ? View.VISIBLE : View.GONE);
+        resultsAdapter.submitList(results);
+    }
+}
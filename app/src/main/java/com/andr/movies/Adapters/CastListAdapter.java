@@ -12,13 +12,16 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.andr.movies.Domains.Cast;
 import com.andr.movies.R;
+import com.andr.movies.image.ImageRequests;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
 
 import java.util.ArrayList;
 
 public class CastListAdapter extends RecyclerView.Adapter<CastListAdapter.Viewholder> {
     ArrayList<Cast> casts;
     Context context;
+    private RequestManager glide;
 
     public CastListAdapter(ArrayList<Cast> casts) {
         this.casts = casts;
@@ -28,14 +31,17 @@ public class CastListAdapter extends RecyclerView.Adapter<CastListAdapter.Viewho
     @Override
     public CastListAdapter.Viewholder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         context = parent.getContext();
+        if (glide == null) {
+            glide = Glide.with(context);
+        }
         View inflate = LayoutInflater.from(parent.getContext()).inflate(R.layout.viewholder_actors, parent, false);
         return new Viewholder(inflate);
     }
 
     @Override
     public void onBindViewHolder(@NonNull CastListAdapter.Viewholder holder, int position) {
-        Glide.with(context)
-                .load(casts.get(position).getPicUrl())
+        // Same request DetailActivity prefetched, so this is a memory cache hit
+        ImageRequests.castAvatar(glide, context, casts.get(position).getPicUrl())
                 .into(holder.pic);
         holder.nameTxt.setText(casts.get(position).getActor());
 
@@ -1,66 +1,133 @@
 package com.andr.movies.Adapters;
 
+import android.app.Activity;
 import android.content.Context;
-import android.content.Intent;
-import android.view.LayoutInflater;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.request.RequestOptions;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 
 import com.andr.movies.Activities.DetailActivity;
 import com.andr.movies.Domains.Film;
 import com.andr.movies.R;
+import com.andr.movies.image.FirstImageListener;
+import com.andr.movies.image.ImageRequests;
+import com.andr.movies.image.RoundedOutline;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+public class FilmListAdapter extends ListAdapter<Film, FilmListAdapter.Viewholder>
+        implements ListPreloader.PreloadModelProvider<Film> {
+    // Lists are diffed on a background thread; only films whose key or bound fields changed rebind
+    private static final DiffUtil.ItemCallback<Film> DIFF_CALLBACK = new DiffUtil.ItemCallback<Film>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Film oldItem, @NonNull Film newItem) {
+            return Objects.equals(oldItem.getNode(), newItem.getNode())
+                    && Objects.equals(oldItem.getKey(), newItem.getKey());
+        }
 
-import java.util.ArrayList;
+        @Override
+        public boolean areContentsTheSame(@NonNull Film oldItem, @NonNull Film newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getPoster(), newItem.getPoster());
+        }
+    };
 
-public class FilmListAdapter extends RecyclerView.Adapter<FilmListAdapter.Viewholder> {
-    ArrayList<Film> items;
+    private final HashMap<String, Long> stableIds = new HashMap<>();
+    private final RequestManager glide;
+    private final ViewPreinflater preinflater;
+    private FirstImageListener firstImageListener;
     Context context;
 
-    public FilmListAdapter(ArrayList<Film> items) {
-        this.items = items;
+    public FilmListAdapter(Context context, ViewPreinflater preinflater) {
+        super(DIFF_CALLBACK);
+        this.context = context;
+        this.glide = Glide.with(context);
+        this.preinflater = preinflater;
+        setHasStableIds(true);
+    }
 
+    // Runs once, when the first poster of this list is ready to draw
+    public void setOnFirstImageShown(Runnable onFirstImage) {
+        firstImageListener = new FirstImageListener(onFirstImage);
     }
 
     @NonNull
     @Override
     public FilmListAdapter.Viewholder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        context = parent.getContext();
-        View inflate = LayoutInflater.from(parent.getContext()).inflate(R.layout.film_viewholder, parent, false);
-        return new Viewholder(inflate);
+        View inflate = preinflater.inflate(R.layout.film_viewholder, parent);
+        Viewholder holder = new Viewholder(inflate);
+        holder.itemView.setOnClickListener(v -> {
+            // Holders travel between rows through the shared pool, so ask which adapter bound this one
+            RecyclerView.Adapter<?> boundAdapter = holder.getBindingAdapter();
+            int position = holder.getBindingAdapterPosition();
+            if (!(boundAdapter instanceof FilmListAdapter) || position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            Film film = ((FilmListAdapter) boundAdapter).getItem(position);
+            if (context instanceof Activity) {
+                DetailActivity.start((Activity) context, film, holder.pic);
+            } else {
+                context.startActivity(DetailActivity.newIntent(context, film));
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull FilmListAdapter.Viewholder holder, int position) {
-        holder.titleTxt.setText(items.get(position).getTitle());
-        RequestOptions requestOptions = new RequestOptions();
-        requestOptions = requestOptions.transform(new CenterCrop(), new RoundedCorners(30));
-
+        Film film = getItem(position);
+        holder.titleTxt.setText(film.getTitle());
+        ViewCompat.setTransitionName(holder.pic, DetailActivity.posterTransitionName(film));
+        RequestBuilder<Drawable> request = ImageRequests.poster(glide, context, film.getPoster());
+        if (firstImageListener != null && firstImageListener.isPending()) {
+            request = request.addListener(firstImageListener);
+        }
+        request.into(holder.pic);
+    }
 
-        Glide.with(context)
-                .load(items.get(position).getPoster())
-                .apply(requestOptions)
-                .into(holder.pic);
+    // Feeds RecyclerViewPreloader with the exact request onBindViewHolder will make
+    @NonNull
+    @Override
+    public List<Film> getPreloadItems(int position) {
+        if (position >= getItemCount()) {
+            return Collections.emptyList();
+        }
+        Film film = getItem(position);
+        return film.getPoster() != null ? Collections.singletonList(film) : Collections.emptyList();
+    }
 
-        holder.itemView.setOnClickListener(v -> {
-            Intent intent = new Intent(context, DetailActivity.class);
-            intent.putExtra("object", items.get(position));
-            context.startActivity(intent);
-        });
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Film item) {
+        return ImageRequests.poster(glide, context, item.getPoster());
     }
 
+    // Film keys are strings, so hand out a sequential id per key the first time it is seen
     @Override
-    public int getItemCount() {
-        return items.size();
+    public long getItemId(int position) {
+        Film film = getItem(position);
+        String key = film.getNode() + "/" + film.getKey();
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(key, id);
+        }
+        return id;
     }
 
     public static class Viewholder extends RecyclerView.ViewHolder {
@@ -71,6 +138,7 @@ public class FilmListAdapter extends RecyclerView.Adapter<FilmListAdapter.Viewho
             super(itemView);
             titleTxt = itemView.findViewById(R.id.nameTxt);
             pic = itemView.findViewById(R.id.pic);
+            RoundedOutline.clipAllCorners(pic, ImageRequests.POSTER_CORNER_RADIUS_PX);
         }
     }
 }
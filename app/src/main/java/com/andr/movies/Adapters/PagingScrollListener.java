@@ -0,0 +1,42 @@
+package com.andr.movies.Adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Asks for the next page once the last visible item is within
+ * prefetchDistance items of the end of a linear list. Also fires on the
+ * layout pass after a page lands, so a short first page keeps filling the row.
+ */
+public class PagingScrollListener extends RecyclerView.OnScrollListener {
+
+    public interface Callback {
+        boolean isLoading();
+
+        boolean hasMore();
+
+        void loadMore();
+    }
+
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private final Callback callback;
+
+    public PagingScrollListener(LinearLayoutManager layoutManager, int prefetchDistance, Callback callback) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+        this.callback = callback;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (callback.isLoading() || !callback.hasMore()) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible + prefetchDistance >= layoutManager.getItemCount() - 1) {
+            callback.loadMore();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.andr.movies.Adapters;
 
 import android.content.Context;
-import android.view.LayoutInflater;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
@@ -13,49 +13,83 @@ import androidx.viewpager2.widget.ViewPager2;
 
 import com.andr.movies.Domains.SliderItems;
 import com.andr.movies.R;
+import com.andr.movies.image.FirstImageListener;
+import com.andr.movies.image.ImageRequests;
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
-import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.RequestBuilder;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Infinite carousel over a fixed banner list: the adapter reports a huge virtual
+ * item count and maps each position onto the real list with modulo indexing,
+ * so the backing list never grows however long the pager keeps scrolling.
+ */
 public class SlidersAdapter extends RecyclerView.Adapter<SlidersAdapter.SliderViewholder> {
+    private static final int VIRTUAL_COUNT = Integer.MAX_VALUE;
+    // Pages around the current one that can hold a bound view (offscreen limit plus view cache)
+    private static final int REBIND_WINDOW = 6;
+
     private List<SliderItems> sliderItems;
     private ViewPager2 viewPager2;
+    private ViewPreinflater preinflater;
     private Context context;
-    private Runnable runnable = new Runnable() {
-        @Override
-        public void run() {
-            sliderItems.addAll(sliderItems);
+    private FirstImageListener firstImageListener;
+
+    public SlidersAdapter(List<SliderItems> sliderItems, ViewPager2 viewPager2, ViewPreinflater preinflater) {
+        this.sliderItems = new ArrayList<>(sliderItems);
+        this.viewPager2 = viewPager2;
+        this.preinflater = preinflater;
+    }
+
+    // Swaps in a new banner list, rebinding only the pages that can be on screen when the size is unchanged
+    public void setSliderItems(List<SliderItems> items) {
+        boolean sameSize = items.size() == sliderItems.size();
+        sliderItems = new ArrayList<>(items);
+        if (sameSize && isInfinite()) {
+            int first = Math.max(0, viewPager2.getCurrentItem() - REBIND_WINDOW);
+            notifyItemRangeChanged(first, REBIND_WINDOW * 2 + 1);
+        } else {
             notifyDataSetChanged();
+            viewPager2.setCurrentItem(getStartPosition(), false);
         }
-    };
+    }
 
-    public SlidersAdapter(List<SliderItems> sliderItems, ViewPager2 viewPager2) {
-        this.sliderItems = sliderItems;
-        this.viewPager2 = viewPager2;
+    // Runs once, when the first banner image is ready to draw
+    public void setOnFirstImageShown(Runnable onFirstImage) {
+        firstImageListener = new FirstImageListener(onFirstImage);
+    }
+
+    // Middle of the virtual range, aligned so it shows the first real banner
+    public int getStartPosition() {
+        if (!isInfinite()) {
+            return 0;
+        }
+        int middle = VIRTUAL_COUNT / 2;
+        return middle - middle % sliderItems.size();
+    }
+
+    private boolean isInfinite() {
+        return sliderItems.size() > 1;
     }
 
     @NonNull
     @Override
     public SlidersAdapter.SliderViewholder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         context = parent.getContext();
-        return new SliderViewholder(LayoutInflater.from(parent.getContext()).inflate(R.layout.slider_viewholder, parent, false));
+        return new SliderViewholder(preinflater.inflate(R.layout.slider_viewholder, parent));
     }
 
     @Override
     public void onBindViewHolder(@NonNull SlidersAdapter.SliderViewholder holder, int position) {
-        holder.setImage(sliderItems.get(position));
-        if (position == sliderItems.size() - 2) {
-            viewPager2.post(runnable);
-        }
+        holder.setImage(sliderItems.get(position % sliderItems.size()));
     }
 
     @Override
     public int getItemCount() {
-        return sliderItems.size();
+        return isInfinite() ? VIRTUAL_COUNT : sliderItems.size();
     }
 
     public class SliderViewholder extends RecyclerView.ViewHolder {
@@ -73,12 +107,11 @@ public class SlidersAdapter extends RecyclerView.Adapter<SlidersAdapter.SliderVi
         }
 
         void setImage(SliderItems sliderItems) {
-            RequestOptions requestOptions = new RequestOptions();
-            requestOptions = requestOptions.transform(new CenterCrop(), new RoundedCorners(60));
-            Glide.with(context)
-                    .load(sliderItems.getImage())
-                    .apply(requestOptions)
-                    .into(imageView);
+            RequestBuilder<Drawable> request = ImageRequests.banner(Glide.with(context), context, sliderItems.getImage());
+            if (firstImageListener != null && firstImageListener.isPending()) {
+                request = request.addListener(firstImageListener);
+            }
+            request.into(imageView);
 
             nameTxt.setText(sliderItems.getName());
             genreTxt.setText(sliderItems.getGenre());
@@ -0,0 +1,73 @@
+package com.andr.movies.Adapters;
+
+import android.annotation.SuppressLint;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.andr.movies.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SuggestionListAdapter extends RecyclerView.Adapter<SuggestionListAdapter.Viewholder> {
+
+    public interface Listener {
+        void onSuggestionClicked(String query);
+    }
+
+    private final List<String> suggestions = new ArrayList<>();
+    private final Listener listener;
+
+    public SuggestionListAdapter(Listener listener) {
+        this.listener = listener;
+    }
+
+    // A handful of rows, swapped synchronously so they show in the same frame as the keystroke
+    @SuppressLint("NotifyDataSetChanged")
+    public void setSuggestions(List<String> newSuggestions) {
+        if (suggestions.equals(newSuggestions)) {
+            return;
+        }
+        suggestions.clear();
+        suggestions.addAll(newSuggestions);
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public SuggestionListAdapter.Viewholder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View inflate = LayoutInflater.from(parent.getContext()).inflate(R.layout.viewholder_suggestion, parent, false);
+        Viewholder holder = new Viewholder(inflate);
+        holder.itemView.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onSuggestionClicked(suggestions.get(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SuggestionListAdapter.Viewholder holder, int position) {
+        holder.queryTxt.setText(suggestions.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return suggestions.size();
+    }
+
+    public static class Viewholder extends RecyclerView.ViewHolder {
+        TextView queryTxt;
+
+        public Viewholder(@NonNull View itemView) {
+            super(itemView);
+            queryTxt = itemView.findViewById(R.id.queryTxt);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.andr.movies.Adapters;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+
+import java.util.ArrayDeque;
+
+/**
+ * Inflates item layouts on a background thread ahead of time, so the first
+ * layout pass after setAdapter can take ready views instead of inflating
+ * every visible card on the main thread. Used from the main thread only.
+ */
+public class ViewPreinflater {
+    private final AsyncLayoutInflater asyncInflater;
+    private final SparseArray<ArrayDeque<View>> ready = new SparseArray<>();
+
+    public ViewPreinflater(Context context) {
+        asyncInflater = new AsyncLayoutInflater(context);
+    }
+
+    // parent is only used to generate the right LayoutParams, the views are not attached
+    public void preinflate(@LayoutRes int layout, ViewGroup parent, int count) {
+        for (int i = 0; i < count; i++) {
+            asyncInflater.inflate(layout, parent, (view, resid, p) -> viewsFor(resid).add(view));
+        }
+    }
+
+    // Takes a pre-inflated view if one is ready, otherwise inflates synchronously
+    @NonNull
+    public View inflate(@LayoutRes int layout, ViewGroup parent) {
+        View view = viewsFor(layout).poll();
+        if (view != null) {
+            return view;
+        }
+        return LayoutInflater.from(parent.getContext()).inflate(layout, parent, false);
+    }
+
+    private ArrayDeque<View> viewsFor(int layout) {
+        ArrayDeque<View> views = ready.get(layout);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            ready.put(layout, views);
+        }
+        return views;
+    }
+}
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 
 public class Film implements Serializable {
+    private String Node;
+    private String Key;
     private String Title;
     private String Description;
     private String Poster;
@@ -17,6 +19,23 @@ public class Film implements Serializable {
     public Film() {
     }
 
+    // Firebase node the film was loaded from (Items, Upcomming)
+    public String getNode() {
+        return Node;
+    }
+
+    public void setNode(String node) {
+        Node = node;
+    }
+
+    public String getKey() {
+        return Key;
+    }
+
+    public void setKey(String key) {
+        Key = key;
+    }
+
     public String getTitle() {
         return Title;
     }
@@ -0,0 +1,25 @@
+package com.andr.movies.Domains;
+
+public class SearchHistoryEntry {
+    private final String query;
+    private final int hitCount;
+    private final long lastUsedMillis;
+
+    public SearchHistoryEntry(String query, int hitCount, long lastUsedMillis) {
+        this.query = query;
+        this.hitCount = hitCount;
+        this.lastUsedMillis = lastUsedMillis;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+}
@@ -0,0 +1,25 @@
+package com.andr.movies.Domains;
+
+public class UserSession {
+    private final int id;
+    private final String fullName;
+    private final String email;
+
+    public UserSession(int id, String fullName, String email) {
+        this.id = id;
+        this.fullName = fullName;
+        this.email = email;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
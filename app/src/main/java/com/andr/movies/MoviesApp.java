@@ -0,0 +1,31 @@
+package com.andr.movies;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+
+import com.andr.movies.data.HomeWarmup;
+
+/**
+ * Owns the app-scoped subsystems. Nothing is started in onCreate; each one is
+ * created the first time a screen asks for it, so a cold start to the intro
+ * or login screen pays only for what that screen uses.
+ */
+public class MoviesApp extends Application {
+    private HomeWarmup homeWarmup;
+
+    public HomeWarmup getHomeWarmup() {
+        if (homeWarmup == null) {
+            homeWarmup = new HomeWarmup(this);
+        }
+        return homeWarmup;
+    }
+
+    // A warm-up nobody took before the app left the screen would otherwise keep its listeners forever
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN && homeWarmup != null) {
+            homeWarmup.cancel();
+        }
+    }
+}
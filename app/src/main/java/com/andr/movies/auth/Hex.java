@@ -0,0 +1,56 @@
+package com.andr.movies.auth;
+
+/**
+ * Lowercase hex encoding through a lookup table, writing into caller-owned
+ * buffers so no per-byte Strings are created.
+ */
+public final class Hex {
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private Hex() {
+    }
+
+    // Writes two chars per byte into dst starting at offset, returns the offset after the last char
+    public static int encode(byte[] src, char[] dst, int offset) {
+        for (byte b : src) {
+            dst[offset++] = DIGITS[(b >> 4) & 0x0f];
+            dst[offset++] = DIGITS[b & 0x0f];
+        }
+        return offset;
+    }
+
+    public static String encode(byte[] src) {
+        char[] out = new char[src.length * 2];
+        encode(src, out, 0);
+        return new String(out);
+    }
+
+    // Decodes src[start, end) into dst, returns false if the length or a digit is invalid
+    public static boolean decode(CharSequence src, int start, int end, byte[] dst) {
+        if (end - start != dst.length * 2) {
+            return false;
+        }
+        for (int i = 0; i < dst.length; i++) {
+            int high = digit(src.charAt(start + 2 * i));
+            int low = digit(src.charAt(start + 2 * i + 1));
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            dst[i] = (byte) ((high << 4) | low);
+        }
+        return true;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.andr.movies.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Verifies the unsalted SHA-256 hex hashes written by earlier versions.
+ * Never used for new hashes; every match is flagged for rehash.
+ */
+final class LegacySha256PasswordHasher implements PasswordHasher {
+    private static final int HASH_HEX_LENGTH = 64;
+
+    @Override
+    public String hash(String password) {
+        return Hex.encode(sha256(password));
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        byte[] expected = new byte[HASH_HEX_LENGTH / 2];
+        if (stored.length() != HASH_HEX_LENGTH || !Hex.decode(stored, 0, HASH_HEX_LENGTH, expected)) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, sha256(password));
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return true;
+    }
+
+    private static byte[] sha256(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.andr.movies.auth;
+
+/**
+ * Turns passwords into stored hashes and checks them. Stored values carry
+ * their own parameters, so the engine or its cost can change without
+ * invalidating existing accounts.
+ */
+public interface PasswordHasher {
+
+    String hash(String password);
+
+    boolean verify(String password, String stored);
+
+    // True when the stored hash should be replaced by hash(password) after a successful verify
+    boolean needsRehash(String stored);
+}
@@ -0,0 +1,96 @@
+package com.andr.movies.auth;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+/**
+ * The app's password hasher. New hashes use PBKDF2 with an iteration count
+ * calibrated once per install so one hash takes about {@link #TARGET_MILLIS}
+ * on this device; older formats still verify and are flagged for rehash.
+ * Every call blocks for that long, so it refuses to run on the main thread.
+ */
+public final class PasswordHashing implements PasswordHasher {
+    static final long TARGET_MILLIS = 250;
+    static final int MIN_ITERATIONS = 10_000;
+    static final int MAX_ITERATIONS = 1_000_000;
+    private static final int PROBE_ITERATIONS = 5_000;
+
+    private static final String PREFS_NAME = "PasswordHashing";
+    private static final String KEY_ITERATIONS = "pbkdf2Iterations";
+
+    private static PasswordHashing instance;
+
+    private final SharedPreferences sharedPreferences;
+    private final PasswordHasher legacy = new LegacySha256PasswordHasher();
+    private Pbkdf2PasswordHasher current;
+
+    private PasswordHashing(Context context) {
+        sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized PasswordHashing getInstance(Context context) {
+        if (instance == null) {
+            instance = new PasswordHashing(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @WorkerThread
+    @Override
+    public String hash(String password) {
+        return current().hash(password);
+    }
+
+    @WorkerThread
+    @Override
+    public boolean verify(String password, String stored) {
+        checkWorkerThread();
+        if (Pbkdf2PasswordHasher.isPbkdf2Hash(stored)) {
+            return current().verify(password, stored);
+        }
+        return legacy.verify(password, stored);
+    }
+
+    @WorkerThread
+    @Override
+    public boolean needsRehash(String stored) {
+        return current().needsRehash(stored);
+    }
+
+    // Calibrates on first use and keeps the result, so the cost only changes on a fresh install
+    private synchronized Pbkdf2PasswordHasher current() {
+        checkWorkerThread();
+        if (current == null) {
+            int iterations = sharedPreferences.getInt(KEY_ITERATIONS, 0);
+            if (iterations <= 0) {
+                iterations = calibrate(TARGET_MILLIS);
+                sharedPreferences.edit().putInt(KEY_ITERATIONS, iterations).apply();
+            }
+            current = new Pbkdf2PasswordHasher(iterations);
+        }
+        return current;
+    }
+
+    // Times a short probe (after one warm-up run) and scales it linearly to the budget
+    @VisibleForTesting
+    static int calibrate(long targetMillis) {
+        byte[] salt = new byte[16];
+        byte[] key = new byte[32];
+        Pbkdf2PasswordHasher.derive("calibration", salt, PROBE_ITERATIONS, key);
+        long start = System.nanoTime();
+        Pbkdf2PasswordHasher.derive("calibration", salt, PROBE_ITERATIONS, key);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        long iterations = PROBE_ITERATIONS * targetMillis * 1_000_000L / elapsedNanos;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, iterations));
+    }
+
+    private static void checkWorkerThread() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Password hashing must not run on the main thread");
+        }
+    }
+}
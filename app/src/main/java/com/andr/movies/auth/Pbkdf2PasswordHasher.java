@@ -0,0 +1,123 @@
+package com.andr.movies.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256. Hashes are stored as
+ * {@code pbkdf2-sha256$<iterations>$<salt hex>$<key hex>}.
+ * PBKDF2 is computed over a plain HmacSHA256 Mac because the
+ * PBKDF2WithHmacSHA256 key factory only exists from API 26.
+ */
+public final class Pbkdf2PasswordHasher implements PasswordHasher {
+    static final String ID = "pbkdf2-sha256";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BYTES = 32;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] key = new byte[KEY_BYTES];
+        derive(password, salt, iterations, key);
+        return format(iterations, salt, key);
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        int iterationsEnd = stored.indexOf('$', ID.length() + 1);
+        int saltEnd = iterationsEnd < 0 ? -1 : stored.indexOf('$', iterationsEnd + 1);
+        int storedIterations = parseIterations(stored);
+        if (saltEnd < 0 || storedIterations < 1) {
+            return false;
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        byte[] expected = new byte[KEY_BYTES];
+        if (!Hex.decode(stored, iterationsEnd + 1, saltEnd, salt)
+                || !Hex.decode(stored, saltEnd + 1, stored.length(), expected)) {
+            return false;
+        }
+        byte[] actual = new byte[KEY_BYTES];
+        derive(password, salt, storedIterations, actual);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return parseIterations(stored) < iterations;
+    }
+
+    static boolean isPbkdf2Hash(String stored) {
+        return stored.startsWith(ID) && stored.length() > ID.length() && stored.charAt(ID.length()) == '$';
+    }
+
+    // Single-block PBKDF2 (the key is exactly one HMAC output); the loop reuses one buffer
+    static void derive(String password, byte[] salt, int iterations, byte[] out) {
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            // HMAC pads keys with zeros, so a lone zero byte is the same key as an empty one
+            mac.init(new SecretKeySpec(passwordBytes.length > 0 ? passwordBytes : new byte[1], MAC_ALGORITHM));
+            byte[] u = new byte[KEY_BYTES];
+            mac.update(salt);
+            mac.update(new byte[]{0, 0, 0, 1});
+            mac.doFinal(u, 0);
+            System.arraycopy(u, 0, out, 0, KEY_BYTES);
+            for (int i = 1; i < iterations; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < KEY_BYTES; j++) {
+                    out[j] ^= u[j];
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is unavailable", e);
+        }
+    }
+
+    private static String format(int iterations, byte[] salt, byte[] key) {
+        String prefix = ID + '$' + iterations + '$';
+        char[] out = new char[prefix.length() + 2 * SALT_BYTES + 1 + 2 * KEY_BYTES];
+        prefix.getChars(0, prefix.length(), out, 0);
+        int offset = Hex.encode(salt, out, prefix.length());
+        out[offset++] = '$';
+        Hex.encode(key, out, offset);
+        return new String(out);
+    }
+
+    // Iteration count of a stored PBKDF2 hash, 0 for any other format
+    private static int parseIterations(String stored) {
+        if (!isPbkdf2Hash(stored)) {
+            return 0;
+        }
+        int end = stored.indexOf('$', ID.length() + 1);
+        if (end < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(stored.substring(ID.length() + 1, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.andr.movies.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide executors, so screens don't spin up their own threads.
+ */
+public class AppExecutors {
+    private static AppExecutors instance;
+
+    private static final int DECODE_THREADS = 2;
+    private static final int DATABASE_THREADS = 2;
+    private static final int DATABASE_QUEUE_CAPACITY = 32;
+
+    private final ExecutorService diskIO;
+    private final ExecutorService decode;
+    private final ExecutorService search;
+    private final ExecutorService database;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        diskIO = Executors.newSingleThreadExecutor();
+        decode = Executors.newFixedThreadPool(DECODE_THREADS);
+        search = Executors.newSingleThreadExecutor();
+        // Bounded on both threads and queue: a flood of requests is rejected instead of piling up
+        database = new ThreadPoolExecutor(DATABASE_THREADS, DATABASE_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(DATABASE_QUEUE_CAPACITY));
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = mainHandler::post;
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    // Serial executor for SQLite reads and writes
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    // CPU-bound work such as turning Firebase snapshots into domain objects
+    public ExecutorService decode() {
+        return decode;
+    }
+
+    // Interactive catalog queries, kept apart from diskIO so they never wait behind cache writes
+    public ExecutorService search() {
+        return search;
+    }
+
+    // User and session queries issued by screens; WAL lets these read alongside diskIO writes
+    public ExecutorService database() {
+        return database;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+}
@@ -0,0 +1,124 @@
+package com.andr.movies.data;
+
+import com.andr.movies.Domains.Cast;
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written field mappers from the raw value tree of a Firebase snapshot
+ * (Maps, Lists, Strings and boxed numbers) to the domain classes. Replaces
+ * the reflection-based getValue(Class) bean mapper on the hot path.
+ */
+public final class CatalogMapper {
+
+    private CatalogMapper() {
+    }
+
+    public static Film toFilm(String node, String key, Object raw) {
+        if (!(raw instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) raw;
+        Film film = new Film();
+        film.setNode(node);
+        film.setKey(key);
+        film.setTitle(asString(map.get("Title")));
+        film.setDescription(asString(map.get("Description")));
+        film.setPoster(asString(map.get("Poster")));
+        film.setTime(asString(map.get("Time")));
+        film.setTrailer(asString(map.get("Trailer")));
+        film.setImdb(asInt(map.get("Imdb")));
+        film.setYear(asInt(map.get("Year")));
+        film.setGenre(toGenres(map.get("Genre")));
+        film.setCasts(toCasts(map.get("Casts")));
+        return film;
+    }
+
+    public static Cast toCast(Object raw) {
+        if (!(raw instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) raw;
+        Cast cast = new Cast();
+        cast.setActor(asString(map.get("Actor")));
+        cast.setPicUrl(asString(map.get("PicUrl")));
+        return cast;
+    }
+
+    public static SliderItems toSliderItems(Object raw) {
+        if (!(raw instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) raw;
+        SliderItems item = new SliderItems();
+        item.setImage(asString(map.get("image")));
+        item.setName(asString(map.get("name")));
+        item.setGenre(asString(map.get("genre")));
+        item.setAge(asString(map.get("age")));
+        item.setYear(asString(map.get("year")));
+        item.setTime(asString(map.get("time")));
+        return item;
+    }
+
+    private static ArrayList<String> toGenres(Object raw) {
+        Iterable<?> values = children(raw);
+        if (values == null) {
+            return null;
+        }
+        ArrayList<String> genres = new ArrayList<>();
+        for (Object value : values) {
+            if (value != null) {
+                genres.add(asString(value));
+            }
+        }
+        return genres;
+    }
+
+    private static ArrayList<Cast> toCasts(Object raw) {
+        Iterable<?> values = children(raw);
+        if (values == null) {
+            return null;
+        }
+        ArrayList<Cast> casts = new ArrayList<>();
+        for (Object value : values) {
+            Cast cast = toCast(value);
+            if (cast != null) {
+                casts.add(cast);
+            }
+        }
+        return casts;
+    }
+
+    // Firebase returns array-like nodes as a List, sparse ones as a Map keyed by index
+    private static Iterable<?> children(Object raw) {
+        if (raw instanceof List) {
+            return (List<?>) raw;
+        }
+        if (raw instanceof Map) {
+            return ((Map<?, ?>) raw).values();
+        }
+        return null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static int asInt(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
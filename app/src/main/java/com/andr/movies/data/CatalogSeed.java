@@ -0,0 +1,148 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.db.CatalogStore;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports the catalog snapshot bundled as {@code assets/catalog_seed.json} on
+ * first launch, so a fresh install has a home screen before Firebase answers.
+ * The file is a Firebase export of the feed nodes:
+ * {@code {"Banners": [...], "Items": [...], "Upcomming": [...]}}; other nodes
+ * are skipped. It is streamed with a JsonReader and every film or banner is
+ * written as soon as its object ends, so memory stays flat whatever the size.
+ */
+public final class CatalogSeed {
+    private static final String TAG = "CatalogSeed";
+    static final String ASSET_NAME = "catalog_seed.json";
+
+    private CatalogSeed() {
+    }
+
+    // Runs on the disk executor ahead of the first cache read; a no-op once anything is cached
+    public static void importIfEmpty(Context context, CatalogStore catalogStore, String bannersNode,
+                                     String... filmNodes) {
+        // Checked before touching the asset, so every later launch skips opening it
+        if (!catalogStore.isEmpty()) {
+            return;
+        }
+        List<String> films = Arrays.asList(filmNodes);
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                context.getAssets().open(ASSET_NAME), StandardCharsets.UTF_8))) {
+            JsonReader json = new JsonReader(reader);
+            boolean imported = catalogStore.importIfEmpty(writer -> read(json, writer, bannersNode, films));
+            if (imported) {
+                Log.i(TAG, "Imported bundled catalog");
+            }
+        } catch (FileNotFoundException e) {
+            // The seed is optional
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            Log.w(TAG, "Skipping unreadable bundled catalog", e);
+        }
+    }
+
+    static void read(JsonReader reader, CatalogStore.CatalogWriter writer, String bannersNode,
+                     List<String> filmNodes) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String node = reader.nextName();
+            if (node.equals(bannersNode)) {
+                readChildren(reader, (key, value) -> {
+                    SliderItems item = CatalogMapper.toSliderItems(value);
+                    if (item != null) {
+                        writer.addBanner(item);
+                    }
+                });
+            } else if (filmNodes.contains(node)) {
+                readChildren(reader, (key, value) -> {
+                    Film film = CatalogMapper.toFilm(node, key, value);
+                    if (film != null) {
+                        writer.addFilm(node, film);
+                    }
+                });
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private interface ChildHandler {
+        void onChild(String key, Object value);
+    }
+
+    // Firebase exports a node as an array (keys are indexes) or an object keyed by child key
+    private static void readChildren(JsonReader reader, ChildHandler handler) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            for (int index = 0; reader.hasNext(); index++) {
+                Object value = readValue(reader);
+                if (value != null) {
+                    handler.onChild(String.valueOf(index), value);
+                }
+            }
+            reader.endArray();
+        } else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                handler.onChild(key, readValue(reader));
+            }
+            reader.endObject();
+        } else {
+            reader.skipValue();
+        }
+    }
+
+    // One child as the value tree Firebase would hand to CatalogMapper: Maps, Lists, Strings, Longs, Doubles
+    private static Object readValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                Map<String, Object> map = new HashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    map.put(reader.nextName(), readValue(reader));
+                }
+                reader.endObject();
+                return map;
+            case BEGIN_ARRAY:
+                List<Object> list = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    list.add(readValue(reader));
+                }
+                reader.endArray();
+                return list;
+            case NUMBER:
+                String number = reader.nextString();
+                if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                    return Double.parseDouble(number);
+                }
+                return Long.parseLong(number);
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                return reader.nextString();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.andr.movies.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.db.CatalogStore;
+import com.andr.movies.metrics.HomeMetrics;
+import com.andr.movies.metrics.Tracer;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Key-ordered paging over a film node (orderByKey + limitToFirst/startAfter).
+ * The cached copy of the node is shown until the first page arrives. Each page
+ * is a live limitToFirst window: its ChildEventListener's initial replay is the
+ * page itself, and later edits, additions and removals arrive on the same
+ * listener as deltas, so a page is downloaded once. Children are mapped on the
+ * decode executor and applied in the order Firebase sent them. Only the rows
+ * that changed are written back to the cache, and cached films past the
+ * pages loaded so far are kept for the next offline start.
+ * All methods and listener calls run on the main thread.
+ */
+public class FilmPager {
+    private static final String TAG = "FilmPager";
+    private static final Runnable NO_OP = () -> {
+    };
+
+    public interface Listener {
+        // Full key-ordered list to show; the first call may come from the cache (fresh == false)
+        void onItems(List<Film> items, boolean fresh);
+    }
+
+    private final DatabaseReference reference;
+    private final String node;
+    private final int pageSize;
+    private final CatalogStore catalogStore;
+    private final AppExecutors executors;
+    private final SnapshotDecoder decoder;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final TreeMap<String, Film> films = new TreeMap<>(FilmPager::compareKeys);
+    private final List<Window> windows = new ArrayList<>();
+
+    // Events are numbered as they arrive and applied in that order once decoded
+    private final HashMap<Long, Runnable> readyEvents = new HashMap<>();
+    private long nextEvent;
+    private long nextEventToApply;
+
+    // Keys written or deleted since the cache was last updated
+    private final HashSet<String> changedKeys = new HashSet<>();
+    private final HashSet<String> removedKeys = new HashSet<>();
+
+    private String lastKey;
+    private boolean loading;
+    private boolean endReached;
+    private boolean firstPageDelivered;
+    private boolean dispatchPending;
+    private boolean stopped;
+
+    private final Runnable dispatch = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPending = false;
+            // Partial first pages are held back so they do not replace the cached row
+            if (stopped || !firstPageDelivered) {
+                return;
+            }
+            ArrayList<Film> items = new ArrayList<>(films.values());
+            persist(new ArrayList<>(items));
+            listener.onItems(items, true);
+        }
+    };
+
+    FilmPager(DatabaseReference reference, int pageSize, CatalogStore catalogStore,
+              AppExecutors executors, SnapshotDecoder decoder, Listener listener) {
+        this.reference = reference;
+        this.node = reference.getKey();
+        this.pageSize = pageSize;
+        this.catalogStore = catalogStore;
+        this.executors = executors;
+        this.decoder = decoder;
+        this.listener = listener;
+    }
+
+    // Shows the cached node, then requests the first page
+    public void start() {
+        executors.diskIO().execute(() -> {
+            ArrayList<Film> cached = catalogStore.getFilms(node);
+            executors.mainThread().execute(() -> {
+                if (!firstPageDelivered && !stopped && !cached.isEmpty()) {
+                    listener.onItems(cached, false);
+                }
+            });
+        });
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (loading || endReached || stopped) {
+            return;
+        }
+        loading = true;
+
+        Query query = reference.orderByKey();
+        if (lastKey != null) {
+            query = query.startAfter(lastKey);
+        }
+        query = query.limitToFirst(pageSize);
+        Window window = new Window(query, lastKey);
+        query.addChildEventListener(window);
+        windows.add(window);
+
+        // Same query as the window, so Firebase answers it from the window's data instead of
+        // downloading the page again; value events come after the child events they cover
+        Tracer.AsyncSection fetch = Tracer.beginAsync(HomeMetrics.fetch(node));
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                fetch.end();
+                String pageLastKey = null;
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    pageLastKey = child.getKey();
+                }
+                String last = pageLastKey;
+                int count = (int) snapshot.getChildrenCount();
+                applyInOrder(nextEvent++, () -> onPageLoaded(count, last));
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                fetch.discard();
+                loading = false;
+            }
+        });
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return !endReached;
+    }
+
+    // Detaches every live window; call from the owning screen's onDestroy
+    public void stop() {
+        stopped = true;
+        for (Window window : windows) {
+            window.query.removeEventListener(window);
+        }
+        windows.clear();
+        readyEvents.clear();
+        mainHandler.removeCallbacks(dispatch);
+    }
+
+    private void onPageLoaded(int count, @Nullable String pageLastKey) {
+        loading = false;
+        if (stopped) {
+            return;
+        }
+        endReached = count < pageSize;
+        firstPageDelivered = true;
+        if (pageLastKey != null) {
+            lastKey = pageLastKey;
+        }
+        scheduleDispatch();
+    }
+
+    // Runs event number `event` once every earlier event has run
+    private void applyInOrder(long event, Runnable apply) {
+        if (stopped) {
+            return;
+        }
+        readyEvents.put(event, apply);
+        Runnable next;
+        while ((next = readyEvents.remove(nextEventToApply)) != null) {
+            nextEventToApply++;
+            next.run();
+        }
+    }
+
+    private void upsert(@Nullable Film film) {
+        if (film != null) {
+            films.put(film.getKey(), film);
+            changedKeys.add(film.getKey());
+            removedKeys.remove(film.getKey());
+            scheduleDispatch();
+        }
+    }
+
+    private void remove(String key) {
+        if (films.remove(key) != null) {
+            removedKeys.add(key);
+            changedKeys.remove(key);
+            scheduleDispatch();
+        }
+    }
+
+    // Writes what changed. The loaded pages cover the keys up to lastKey, or the whole node once the
+    // end was reached; cached films in that range that Firebase no longer has are deleted, the rest
+    // of the cache stays after the loaded films
+    private void persist(ArrayList<Film> items) {
+        HashSet<String> changed = new HashSet<>(changedKeys);
+        HashSet<String> removed = new HashSet<>(removedKeys);
+        changedKeys.clear();
+        removedKeys.clear();
+        String coveredUpTo = endReached ? null : lastKey;
+        executors.diskIO().execute(() -> {
+            ArrayList<Film> films = withCachedTail(items, catalogStore.getFilms(node), coveredUpTo, removed);
+            catalogStore.updateFilms(node, films, changed, removed);
+        });
+    }
+
+    // Fresh films followed by the cached films after coveredUpTo (null covers every key); cached films
+    // inside the covered range that are not among the fresh ones are added to removed
+    static ArrayList<Film> withCachedTail(List<Film> fresh, List<Film> cached, @Nullable String coveredUpTo,
+                                          Set<String> removed) {
+        HashSet<String> freshKeys = new HashSet<>();
+        for (Film film : fresh) {
+            freshKeys.add(film.getKey());
+        }
+        ArrayList<Film> films = new ArrayList<>(fresh);
+        for (Film film : cached) {
+            String key = film.getKey();
+            if (freshKeys.contains(key)) {
+                continue;
+            }
+            if (coveredUpTo == null || compareKeys(key, coveredUpTo) <= 0) {
+                removed.add(key);
+            } else {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    // Coalesces a burst of deltas into one list update
+    private void scheduleDispatch() {
+        if (!dispatchPending) {
+            dispatchPending = true;
+            mainHandler.post(dispatch);
+        }
+    }
+
+    /**
+     * One live limitToFirst page. A film added inside the window pushes its
+     * last film out: Firebase reports that as a removal in the same event
+     * batch as the addition, and the pushed-out film still exists, so a
+     * removal only counts once the batch ended without an addition of a
+     * smaller key. The pushed-out film stays in the list but is no longer
+     * watched by any window.
+     */
+    private final class Window implements ChildEventListener {
+        final Query query;
+        private final String startAfterKey;
+        private final ArrayList<String> removedInBatch = new ArrayList<>();
+        private final ArrayList<Long> removalEvents = new ArrayList<>();
+        private String smallestAddedInBatch;
+        private boolean batchEndPosted;
+
+        private final Runnable endBatch = new Runnable() {
+            @Override
+            public void run() {
+                batchEndPosted = false;
+                for (int i = 0; i < removedInBatch.size(); i++) {
+                    String key = removedInBatch.get(i);
+                    boolean pushedOut = smallestAddedInBatch != null
+                            && compareKeys(smallestAddedInBatch, key) < 0;
+                    applyInOrder(removalEvents.get(i), pushedOut ? NO_OP : () -> remove(key));
+                }
+                removedInBatch.clear();
+                removalEvents.clear();
+                smallestAddedInBatch = null;
+            }
+        };
+
+        Window(Query query, @Nullable String startAfterKey) {
+            this.query = query;
+            this.startAfterKey = startAfterKey;
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            if (batchEndPosted && (smallestAddedInBatch == null
+                    || compareKeys(snapshot.getKey(), smallestAddedInBatch) < 0)) {
+                smallestAddedInBatch = snapshot.getKey();
+            }
+            decode(snapshot);
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            decode(snapshot);
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            // Decided once the rest of this event batch has been delivered
+            removedInBatch.add(snapshot.getKey());
+            removalEvents.add(nextEvent++);
+            if (!batchEndPosted) {
+                batchEndPosted = true;
+                mainHandler.post(endBatch);
+            }
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            // Rows are ordered by key, which a move never changes
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            Log.w(TAG, "Stopped watching " + node + " after key " + startAfterKey, error.toException());
+            windows.remove(this);
+            // Settles removals already numbered, so later events are not held back behind them
+            if (batchEndPosted) {
+                mainHandler.removeCallbacks(endBatch);
+                endBatch.run();
+            }
+        }
+
+        private void decode(DataSnapshot snapshot) {
+            long event = nextEvent++;
+            decoder.decodeFilm(node, snapshot, film -> applyInOrder(event, () -> upsert(film)));
+        }
+    }
+
+    // Firebase key order: 32-bit integer keys first, numerically, then the rest lexicographically
+    static int compareKeys(String a, String b) {
+        Integer intA = parseIntKey(a);
+        Integer intB = parseIntKey(b);
+        if (intA != null && intB != null) {
+            int result = Integer.compare(intA, intB);
+            return result != 0 ? result : Integer.compare(a.length(), b.length());
+        }
+        if (intA != null) {
+            return -1;
+        }
+        if (intB != null) {
+            return 1;
+        }
+        return a.compareTo(b);
+    }
+
+    // Same rule as the SDK: an optional '-' and ASCII digits within 32-bit range ("+1" is a string key)
+    private static Integer parseIntKey(String key) {
+        int length = key.length();
+        int start = length > 0 && key.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > 10) {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (start == 1) {
+            value = -value;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return null;
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.andr.movies.data;
+
+import android.util.LruCache;
+
+import com.andr.movies.Domains.Film;
+
+/**
+ * In-process lookup of recently shown films by (node, key), so screens can
+ * hand each other a film key instead of serializing the whole Film into an
+ * Intent. Entries can vanish with the process; callers fall back to the
+ * catalog cache on disk.
+ */
+public class FilmRegistry {
+    private static final int MAX_FILMS = 200;
+
+    private static FilmRegistry instance;
+
+    private final LruCache<String, Film> films = new LruCache<>(MAX_FILMS);
+
+    private FilmRegistry() {
+    }
+
+    public static synchronized FilmRegistry getInstance() {
+        if (instance == null) {
+            instance = new FilmRegistry();
+        }
+        return instance;
+    }
+
+    public void put(Film film) {
+        films.put(id(film.getNode(), film.getKey()), film);
+    }
+
+    public Film get(String node, String key) {
+        return films.get(id(node, key));
+    }
+
+    private static String id(String node, String key) {
+        return node + "/" + key;
+    }
+}
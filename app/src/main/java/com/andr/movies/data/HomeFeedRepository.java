@@ -0,0 +1,134 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.db.CatalogStore;
+import com.andr.movies.metrics.HomeMetrics;
+import com.andr.movies.metrics.Tracer;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+
+/**
+ * Stale-while-revalidate source for the home feed: the cached copy of a node is
+ * delivered first, then the Firebase answer replaces it on screen and on disk.
+ * Film rows are paged through {@link FilmPager}.
+ */
+public class HomeFeedRepository {
+    public static final String NODE_BANNERS = "Banners";
+    public static final String NODE_TOP_MOVIES = "Items";
+    public static final String NODE_UPCOMING = "Upcomming";
+
+    public interface Callback<T> {
+        // Called on the main thread, first with cached items (fresh == false), then with network items
+        void onItems(ArrayList<T> items, boolean fresh);
+    }
+
+    public interface FilmCallback {
+        // Called on the main thread; film is null when it is neither in memory nor cached
+        void onFilm(Film film);
+    }
+
+    private static HomeFeedRepository instance;
+
+    private final CatalogStore catalogStore;
+    private final FirebaseDatabase database;
+    private final AppExecutors executors;
+    private final SnapshotDecoder decoder;
+
+    private HomeFeedRepository(Context context) {
+        catalogStore = new CatalogStore(context);
+        database = FirebaseDatabase.getInstance();
+        executors = AppExecutors.getInstance();
+        decoder = new SnapshotDecoder(executors.decode(), executors.mainThread());
+        // diskIO is serial, so the seed lands before any cached read queued after it
+        executors.diskIO().execute(() -> CatalogSeed.importIfEmpty(context, catalogStore,
+                NODE_BANNERS, NODE_TOP_MOVIES, NODE_UPCOMING));
+    }
+
+    public static synchronized HomeFeedRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new HomeFeedRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void loadBanners(Callback<SliderItems> callback) {
+        Delivery<SliderItems> delivery = new Delivery<>(callback);
+        executors.diskIO().execute(() -> {
+            ArrayList<SliderItems> cached = catalogStore.getBanners();
+            executors.mainThread().execute(() -> delivery.deliverCached(cached));
+        });
+
+        Tracer.AsyncSection fetch = Tracer.beginAsync(HomeMetrics.fetch(NODE_BANNERS));
+        database.getReference(NODE_BANNERS).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                fetch.end();
+                if (snapshot.exists()) {
+                    decoder.decodeBanners(snapshot, items -> {
+                        ArrayList<SliderItems> snapshotCopy = new ArrayList<>(items);
+                        delivery.deliverFresh(items);
+                        executors.diskIO().execute(() -> catalogStore.replaceBanners(snapshotCopy));
+                    });
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                fetch.discard();
+            }
+        });
+    }
+
+    // Paged access to a film node; call start() on the returned pager
+    public FilmPager newFilmPager(String node, int pageSize, FilmPager.Listener listener) {
+        return new FilmPager(database.getReference(node), pageSize, catalogStore, executors, decoder, listener);
+    }
+
+    // Resolves a film handed over by key: from memory first, then from the catalog cache
+    public void loadFilm(String node, String key, FilmCallback callback) {
+        Film film = FilmRegistry.getInstance().get(node, key);
+        if (film != null) {
+            callback.onFilm(film);
+            return;
+        }
+        executors.diskIO().execute(() -> {
+            Film cached = catalogStore.getFilm(node, key);
+            executors.mainThread().execute(() -> {
+                if (cached != null) {
+                    FilmRegistry.getInstance().put(cached);
+                }
+                callback.onFilm(cached);
+            });
+        });
+    }
+
+    // Drops the cached answer when the network one already reached the screen
+    private static class Delivery<T> {
+        private final Callback<T> callback;
+        private boolean freshDelivered;
+
+        Delivery(Callback<T> callback) {
+            this.callback = callback;
+        }
+
+        void deliverCached(ArrayList<T> items) {
+            if (!freshDelivered && !items.isEmpty()) {
+                callback.onItems(items, false);
+            }
+        }
+
+        void deliverFresh(ArrayList<T> items) {
+            freshDelivered = true;
+            callback.onItems(items, true);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.MoviesApp;
+import com.andr.movies.image.ImageRequests;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the home feed while the intro screen is up: Firebase, the banner
+ * node, the first page of both film rows and the posters of their first
+ * cards. MainActivity then takes over the requests still in flight and is
+ * handed whatever already arrived, instead of starting them again.
+ * All methods run on the main thread.
+ */
+public class HomeWarmup {
+    // Films per Firebase page, shared by warm and cold home screens
+    private static final int FILM_PAGE_SIZE = 10;
+    // Cards of a row visible on a phone before any scrolling
+    private static final int POSTERS_PER_ROW = 4;
+    private static final String[] FILM_NODES = {
+            HomeFeedRepository.NODE_TOP_MOVIES, HomeFeedRepository.NODE_UPCOMING
+    };
+
+    private final Context context;
+    private Relay<ArrayList<SliderItems>> banners;
+    private final HashMap<String, WarmPager> films = new HashMap<>();
+
+    public HomeWarmup(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static HomeWarmup getInstance(Context context) {
+        return ((MoviesApp) context.getApplicationContext()).getHomeWarmup();
+    }
+
+    // Starts every home request that is not already warm; safe to call on each intro onStart
+    public void start() {
+        HomeFeedRepository repository = HomeFeedRepository.getInstance(context);
+        if (banners == null) {
+            banners = new Relay<>();
+            repository.loadBanners(banners::deliver);
+        }
+        RequestManager glide = Glide.with(context);
+        for (String node : FILM_NODES) {
+            if (films.containsKey(node)) {
+                continue;
+            }
+            Relay<List<Film>> relay = new Relay<>();
+            FilmPager pager = repository.newFilmPager(node, FILM_PAGE_SIZE, (items, fresh) -> {
+                if (!relay.isAttached()) {
+                    preloadPosters(glide, items);
+                }
+                relay.deliver(items, fresh);
+            });
+            films.put(node, new WarmPager(pager, relay));
+            pager.start();
+        }
+    }
+
+    // Same result as HomeFeedRepository.loadBanners, minus the wait when the intro already asked
+    public void attachBanners(HomeFeedRepository.Callback<SliderItems> callback) {
+        Relay<ArrayList<SliderItems>> relay = banners;
+        banners = null;
+        if (relay == null) {
+            HomeFeedRepository.getInstance(context).loadBanners(callback);
+            return;
+        }
+        relay.attach(callback::onItems);
+    }
+
+    // Hands over the warm pager of a node, or starts a new one; the caller stops it when done
+    public FilmPager attachFilmPager(String node, FilmPager.Listener listener) {
+        WarmPager warm = films.remove(node);
+        if (warm == null) {
+            FilmPager pager = HomeFeedRepository.getInstance(context).newFilmPager(node, FILM_PAGE_SIZE, listener);
+            pager.start();
+            return pager;
+        }
+        warm.relay.attach(listener::onItems);
+        return warm.pager;
+    }
+
+    // Drops whatever was not taken, closing the film listeners
+    public void cancel() {
+        banners = null;
+        for (Map.Entry<String, WarmPager> entry : films.entrySet()) {
+            entry.getValue().pager.stop();
+        }
+        films.clear();
+    }
+
+    // Same request as the film row binds, so the row finds the posters in Glide's memory cache
+    private void preloadPosters(RequestManager glide, List<Film> items) {
+        int count = Math.min(POSTERS_PER_ROW, items.size());
+        for (int i = 0; i < count; i++) {
+            String poster = items.get(i).getPoster();
+            if (poster != null) {
+                ImageRequests.poster(glide, context, poster).preload();
+            }
+        }
+    }
+
+    private static final class WarmPager {
+        final FilmPager pager;
+        final Relay<List<Film>> relay;
+
+        WarmPager(FilmPager pager, Relay<List<Film>> relay) {
+            this.pager = pager;
+            this.relay = relay;
+        }
+    }
+
+    // Keeps the latest answer until a screen attaches, then forwards every later one
+    private static final class Relay<L> {
+        interface Target<L> {
+            void onItems(L items, boolean fresh);
+        }
+
+        private Target<L> target;
+        private L items;
+        private boolean fresh;
+
+        void deliver(L items, boolean fresh) {
+            if (target != null) {
+                target.onItems(items, fresh);
+                return;
+            }
+            this.items = items;
+            this.fresh = fresh;
+        }
+
+        void attach(Target<L> target) {
+            this.target = target;
+            if (items != null) {
+                L pending = items;
+                items = null;
+                target.onItems(pending, fresh);
+            }
+        }
+
+        boolean isAttached() {
+            return target != null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.andr.movies.data;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.db.CatalogStore;
+import com.andr.movies.db.DatabaseHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search-as-you-type: keystrokes are debounced, a newer query cancels the one
+ * still running in SQLite, and each query streams a first batch of results
+ * before the full list. Only committed queries (search action) go to the
+ * history, buffered and written in one transaction on flush(); they reach the
+ * suggestion index right away.
+ * Methods and listener calls run on the main thread.
+ */
+public class SearchPipeline {
+
+    public interface Listener {
+        // complete is false for the first batch of a query that has more results coming
+        void onResults(String text, List<Film> results, boolean complete);
+    }
+
+    private static final long DEBOUNCE_MS = 250;
+    private static final int FIRST_BATCH = 12;
+    private static final int MAX_RESULTS = 50;
+    private static final int MAX_BUFFERED_QUERIES = 10;
+
+    private final CatalogStore catalogStore;
+    private final DatabaseHelper databaseHelper;
+    private final SearchSuggestions suggestions;
+    private final AppExecutors executors;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<String> committedQueries = new ArrayList<>();
+
+    private int generation;
+    private String pendingText;
+    private CancellationSignal inFlight;
+    private String lastCommitted;
+
+    private final Runnable debounced = () -> run(pendingText);
+
+    public SearchPipeline(CatalogStore catalogStore, DatabaseHelper databaseHelper,
+                          SearchSuggestions suggestions, Listener listener) {
+        this.catalogStore = catalogStore;
+        this.databaseHelper = databaseHelper;
+        this.suggestions = suggestions;
+        this.executors = AppExecutors.getInstance();
+        this.listener = listener;
+    }
+
+    public void onTextChanged(String text) {
+        mainHandler.removeCallbacks(debounced);
+        cancelInFlight();
+        if (text.trim().isEmpty()) {
+            listener.onResults(text, new ArrayList<>(), true);
+            return;
+        }
+        pendingText = text;
+        mainHandler.postDelayed(debounced, DEBOUNCE_MS);
+    }
+
+    // The user submitted the query: search right away and remember it for the history
+    public void commit(String text, int userId) {
+        String query = text.trim();
+        if (query.isEmpty()) {
+            return;
+        }
+        mainHandler.removeCallbacks(debounced);
+        run(text);
+        if (userId != -1 && !query.equals(lastCommitted)) {
+            lastCommitted = query;
+            committedQueries.add(query);
+            suggestions.record(userId, query);
+            if (committedQueries.size() >= MAX_BUFFERED_QUERIES) {
+                flush(userId);
+            }
+        }
+    }
+
+    // Writes buffered history in one transaction, then trims the user's history to its retention
+    // limit; call when the screen goes to the background
+    public void flush(int userId) {
+        if (committedQueries.isEmpty() || userId == -1) {
+            return;
+        }
+        ArrayList<String> queries = new ArrayList<>(committedQueries);
+        committedQueries.clear();
+        executors.diskIO().execute(() -> {
+            databaseHelper.addSearchQueries(userId, queries);
+            databaseHelper.compactSearchHistory(userId);
+        });
+    }
+
+    public void cancel() {
+        mainHandler.removeCallbacks(debounced);
+        cancelInFlight();
+    }
+
+    private void run(String text) {
+        cancelInFlight();
+        int runGeneration = ++generation;
+        CancellationSignal signal = new CancellationSignal();
+        inFlight = signal;
+        executors.search().execute(() -> {
+            try {
+                catalogStore.searchFilms(text, MAX_RESULTS, FIRST_BATCH, signal,
+                        (films, complete) -> deliver(runGeneration, text, films, complete));
+            } catch (OperationCanceledException e) {
+                // Superseded by a newer query
+            }
+        });
+    }
+
+    private void deliver(int runGeneration, String text, List<Film> results, boolean complete) {
+        mainHandler.post(() -> {
+            if (runGeneration == generation) {
+                listener.onResults(text, results, complete);
+            }
+        });
+    }
+
+    private void cancelInFlight() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+}
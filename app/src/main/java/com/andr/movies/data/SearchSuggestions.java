@@ -0,0 +1,80 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+
+import com.andr.movies.Domains.SearchHistoryEntry;
+import com.andr.movies.db.DatabaseHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Process-wide suggestion index for the signed-in user. The history is read
+ * from SQLite once per user on the disk executor; after that every committed
+ * query updates the index in memory and suggestions never touch the database.
+ * Methods run on the main thread.
+ */
+public class SearchSuggestions {
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private static SearchSuggestions instance;
+
+    private final DatabaseHelper databaseHelper;
+    private final AppExecutors executors;
+
+    private int userId = -1;
+    private SuggestionIndex index;
+
+    private SearchSuggestions(Context context) {
+        databaseHelper = DatabaseHelper.getInstance(context);
+        executors = AppExecutors.getInstance();
+    }
+
+    public static synchronized SearchSuggestions getInstance(Context context) {
+        if (instance == null) {
+            instance = new SearchSuggestions(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Loads the user's history once; onLoaded runs when suggestions are ready (right away if they were)
+    public void load(int userId, Runnable onLoaded) {
+        if (userId == -1) {
+            return;
+        }
+        if (this.userId == userId) {
+            onLoaded.run();
+            return;
+        }
+        this.userId = userId;
+        SuggestionIndex loading = new SuggestionIndex(DatabaseHelper.MAX_SEARCH_HISTORY_PER_USER);
+        index = loading;
+        executors.diskIO().execute(() -> {
+            ArrayList<SearchHistoryEntry> history = databaseHelper.getSearchHistory(userId);
+            executors.mainThread().execute(() -> {
+                if (index != loading) {
+                    return;
+                }
+                // Queries committed while loading are already in the index and merge with their rows
+                for (SearchHistoryEntry entry : history) {
+                    loading.add(entry.getQuery(), entry.getHitCount(), entry.getLastUsedMillis());
+                }
+                onLoaded.run();
+            });
+        });
+    }
+
+    public void record(int userId, String query) {
+        if (userId == this.userId && index != null) {
+            index.record(query, System.currentTimeMillis());
+        }
+    }
+
+    public List<String> suggest(int userId, String prefix) {
+        if (userId != this.userId || index == null) {
+            return Collections.emptyList();
+        }
+        return index.suggest(prefix, MAX_SUGGESTIONS, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,67 @@
+package com.andr.movies.data;
+
+import androidx.annotation.Nullable;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.metrics.HomeMetrics;
+import com.andr.movies.metrics.Tracer;
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Decodes Firebase snapshots into domain objects on a background executor and
+ * hands the result back on the main thread.
+ */
+public class SnapshotDecoder {
+
+    public interface Callback<T> {
+        void onDecoded(ArrayList<T> items);
+    }
+
+    public interface ItemCallback<T> {
+        // item is null when the child could not be mapped
+        void onDecoded(@Nullable T item);
+    }
+
+    private final Executor decodeExecutor;
+    private final Executor mainThread;
+
+    public SnapshotDecoder(Executor decodeExecutor, Executor mainThread) {
+        this.decodeExecutor = decodeExecutor;
+        this.mainThread = mainThread;
+    }
+
+    // One child of a film node, as delivered by a ChildEventListener
+    public void decodeFilm(String node, DataSnapshot child, ItemCallback<Film> callback) {
+        decodeExecutor.execute(() -> {
+            Tracer.Section section = Tracer.begin(HomeMetrics.decode(node));
+            Film film = CatalogMapper.toFilm(node, child.getKey(), child.getValue());
+            section.end();
+            mainThread.execute(() -> callback.onDecoded(film));
+        });
+    }
+
+    public void decodeBanners(DataSnapshot snapshot, Callback<SliderItems> callback) {
+        decodeExecutor.execute(() -> {
+            Tracer.Section section = Tracer.begin(HomeMetrics.decode(snapshot.getKey()));
+            ArrayList<SliderItems> items = decodeBanners(snapshot);
+            section.end();
+            mainThread.execute(() -> callback.onDecoded(items));
+        });
+    }
+
+    // Synchronous variant, must not be called on the main thread
+    public static ArrayList<SliderItems> decodeBanners(DataSnapshot snapshot) {
+        ArrayList<SliderItems> items = new ArrayList<>((int) snapshot.getChildrenCount());
+        for (DataSnapshot issue : snapshot.getChildren()) {
+            SliderItems item = CatalogMapper.toSliderItems(issue.getValue());
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,100 @@
+package com.andr.movies.data;
+
+import com.andr.movies.db.DatabaseHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * One user's search history as a sorted map from normalized query to entry,
+ * so a prefix is a range of keys. Suggestions rank by frecency: hit count
+ * weighted by a recency decay with a one-week half-life. Bounded to the same
+ * size as the stored history by dropping the least recently used entry.
+ */
+public class SuggestionIndex {
+    private static final double HALF_LIFE_MILLIS = 7 * 24 * 60 * 60 * 1000.0;
+
+    private static final class Entry {
+        String query;
+        int hits;
+        long lastUsedMillis;
+        double score;
+    }
+
+    private static final Comparator<Entry> BY_SCORE = (a, b) -> Double.compare(a.score, b.score);
+
+    private final int capacity;
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+
+    public SuggestionIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // Adds hits to a query, keeping the newest spelling and time
+    public void add(String query, int hits, long lastUsedMillis) {
+        String normalized = DatabaseHelper.normalizeQuery(query);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Entry entry = entries.get(normalized);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(normalized, entry);
+        }
+        entry.hits += hits;
+        if (lastUsedMillis >= entry.lastUsedMillis) {
+            entry.lastUsedMillis = lastUsedMillis;
+            entry.query = query.trim();
+        }
+        if (entries.size() > capacity) {
+            evictLeastRecent();
+        }
+    }
+
+    public void record(String query, long nowMillis) {
+        add(query, 1, nowMillis);
+    }
+
+    // Up to limit queries starting with prefix, best first; an empty prefix ranks the whole history
+    public List<String> suggest(String prefix, int limit, long nowMillis) {
+        String normalized = DatabaseHelper.normalizeQuery(prefix);
+        Map<String, Entry> range = normalized.isEmpty()
+                ? entries
+                : entries.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+        PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        for (Entry entry : range.values()) {
+            entry.score = entry.hits * Math.pow(0.5, Math.max(0, nowMillis - entry.lastUsedMillis) / HALF_LIFE_MILLIS);
+            top.add(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        ArrayList<String> suggestions = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            suggestions.add(top.poll().query);
+        }
+        Collections.reverse(suggestions);
+        return suggestions;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictLeastRecent() {
+        String oldestKey = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().lastUsedMillis < oldest) {
+                oldest = entry.getValue().lastUsedMillis;
+                oldestKey = entry.getKey();
+            }
+        }
+        entries.remove(oldestKey);
+    }
+}
@@ -0,0 +1,66 @@
+package com.andr.movies.data;
+
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Background work whose result is delivered on the main thread, unless the
+ * task was cancelled first. Screens cancel their tasks in onDestroy so no
+ * callback ever reaches a dead activity.
+ */
+public final class UiTask<T> {
+    private static final String TAG = "UiTask";
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+        }
+    }
+
+    private volatile boolean cancelled;
+    private Future<?> future;
+
+    private UiTask() {
+    }
+
+    static <T> UiTask<T> submit(ExecutorService executor, Executor mainThread,
+                                Callable<T> work, Callback<T> callback) {
+        UiTask<T> task = new UiTask<>();
+        try {
+            task.future = executor.submit(() -> {
+                try {
+                    T result = work.call();
+                    mainThread.execute(() -> {
+                        if (!task.cancelled) {
+                            callback.onResult(result);
+                        }
+                    });
+                } catch (Exception e) {
+                    Log.w(TAG, "Background task failed", e);
+                    mainThread.execute(() -> {
+                        if (!task.cancelled) {
+                            callback.onError(e);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Background queue is full", e);
+            mainThread.execute(() -> callback.onError(e));
+        }
+        return task;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.andr.movies.Domains.UserSession;
+import com.andr.movies.db.DatabaseHelper;
+
+/**
+ * Account operations for the login and register screens. Every database and
+ * preferences write runs on the shared database executor; results come back
+ * on the main thread through a cancellable {@link UiTask}. The signed-in
+ * {@link UserSession} is cached for the process, so later screens never query
+ * the users table.
+ */
+public class UserRepository {
+    private static final String PREFS_NAME = "MovieCenterPrefs";
+    private static final String KEY_LOGGED_IN = "isLoggedIn";
+    private static final String KEY_EMAIL = "userEmail";
+    private static final String KEY_FULL_NAME = "userFullName";
+    private static final String KEY_USER_ID = "userId";
+
+    private static UserRepository instance;
+
+    private final DatabaseHelper databaseHelper;
+    private final SharedPreferences sharedPreferences;
+    private final AppExecutors executors;
+
+    private volatile UserSession session;
+
+    private UserRepository(Context context) {
+        databaseHelper = DatabaseHelper.getInstance(context);
+        sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        executors = AppExecutors.getInstance();
+    }
+
+    public static synchronized UserRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Result is false when the email is already registered
+    public UiTask<Boolean> register(String fullName, String email, String password, UiTask.Callback<Boolean> callback) {
+        return UiTask.submit(executors.database(), executors.mainThread(),
+                () -> databaseHelper.registerUser(fullName, email, password), callback);
+    }
+
+    // Result is false for a wrong email or password; on success the login state is saved
+    public UiTask<Boolean> login(String email, String password, UiTask.Callback<Boolean> callback) {
+        return UiTask.submit(executors.database(), executors.mainThread(), () -> {
+            UserSession authenticated = databaseHelper.authenticate(email, password);
+            if (authenticated == null) {
+                return false;
+            }
+            saveLoginState(authenticated);
+            session = authenticated;
+            return true;
+        }, callback);
+    }
+
+    public boolean isLoggedIn() {
+        return sharedPreferences.getBoolean(KEY_LOGGED_IN, false);
+    }
+
+    // Cached session, restored from the saved login state on first use; null when signed out
+    public UserSession getSession() {
+        UserSession current = session;
+        if (current == null && isLoggedIn()) {
+            current = new UserSession(sharedPreferences.getInt(KEY_USER_ID, -1),
+                    sharedPreferences.getString(KEY_FULL_NAME, ""),
+                    sharedPreferences.getString(KEY_EMAIL, ""));
+            session = current;
+        }
+        return current;
+    }
+
+    public int getLoggedInUserId() {
+        UserSession current = getSession();
+        return current != null ? current.getId() : -1;
+    }
+
+    private void saveLoginState(UserSession user) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putBoolean(KEY_LOGGED_IN, true);
+        editor.putString(KEY_EMAIL, user.getEmail());
+        editor.putString(KEY_FULL_NAME, user.getFullName());
+        editor.putInt(KEY_USER_ID, user.getId());
+        editor.apply();
+    }
+}
@@ -0,0 +1,478 @@
+package com.andr.movies.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.andr.movies.Domains.Cast;
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * On-disk copy of the Firebase home feed nodes (Banners, Items, Upcomming).
+ * Lives in the same database as users and search history so the home screen
+ * can render the last known catalog before the network answers.
+ */
+public class CatalogStore {
+
+    private static final String TAG = "CatalogStore";
+
+    // Films table (one row per film, per Firebase node)
+    static final String TABLE_FILMS = "catalog_films";
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_NODE = "node";
+    static final String COLUMN_FILM_KEY = "film_key";
+    static final String COLUMN_POSITION = "position";
+    static final String COLUMN_TITLE = "title";
+    static final String COLUMN_DESCRIPTION = "description";
+    static final String COLUMN_POSTER = "poster";
+    static final String COLUMN_TIME = "time";
+    static final String COLUMN_TRAILER = "trailer";
+    static final String COLUMN_IMDB = "imdb";
+    static final String COLUMN_YEAR = "year";
+    static final String COLUMN_GENRES = "genres";
+    static final String COLUMN_CASTS = "casts";
+
+    // Full-text index over films, docid = id of the film in catalog_films
+    static final String TABLE_SEARCH = "catalog_search";
+    static final String COLUMN_SEARCH_TITLE = "title";
+    static final String COLUMN_SEARCH_GENRES = "genres";
+    static final String COLUMN_SEARCH_ACTORS = "actors";
+    static final String COLUMN_SEARCH_DESCRIPTION = "description";
+
+    // Banners table
+    static final String TABLE_BANNERS = "catalog_banners";
+    static final String COLUMN_BANNER_POSITION = "position";
+    static final String COLUMN_BANNER_IMAGE = "image";
+    static final String COLUMN_BANNER_NAME = "name";
+    static final String COLUMN_BANNER_GENRE = "genre";
+    static final String COLUMN_BANNER_AGE = "age";
+    static final String COLUMN_BANNER_YEAR = "year";
+    static final String COLUMN_BANNER_TIME = "time";
+
+    private static final String[] FILM_COLUMNS = {
+            COLUMN_NODE, COLUMN_FILM_KEY, COLUMN_TITLE, COLUMN_DESCRIPTION, COLUMN_POSTER, COLUMN_TIME,
+            COLUMN_TRAILER, COLUMN_IMDB, COLUMN_YEAR, COLUMN_GENRES, COLUMN_CASTS
+    };
+
+    private static final String[] BANNER_COLUMNS = {
+            COLUMN_BANNER_IMAGE, COLUMN_BANNER_NAME, COLUMN_BANNER_GENRE,
+            COLUMN_BANNER_AGE, COLUMN_BANNER_YEAR, COLUMN_BANNER_TIME
+    };
+
+    private final DatabaseHelper databaseHelper;
+
+    public CatalogStore(Context context) {
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    // Get cached films of a node in their Firebase order
+    public ArrayList<Film> getFilms(String node) {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        ArrayList<Film> films = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_FILMS, FILM_COLUMNS,
+                COLUMN_NODE + "=?", new String[]{node}, null, null, COLUMN_POSITION + " ASC");
+        try {
+            while (cursor.moveToNext()) {
+                films.add(readFilm(cursor, 0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return films;
+    }
+
+    // Get one cached film, or null when it was never cached
+    public Film getFilm(String node, String key) {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        Cursor cursor = db.query(TABLE_FILMS, FILM_COLUMNS,
+                COLUMN_NODE + "=? AND " + COLUMN_FILM_KEY + "=?", new String[]{node, key},
+                null, null, null);
+        try {
+            return cursor.moveToFirst() ? readFilm(cursor, 0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Replace the cached films of a node with the ones loaded so far
+    public void replaceFilms(String node, List<Film> films) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.execSQL("DELETE FROM " + TABLE_SEARCH + " WHERE docid IN (SELECT " + COLUMN_ID + " FROM "
+                    + TABLE_FILMS + " WHERE " + COLUMN_NODE + "=?)", new Object[]{node});
+            db.delete(TABLE_FILMS, COLUMN_NODE + "=?", new String[]{node});
+            insertFilms(db, node, films, 0);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Applies deltas to the cached films of a node: changed keys are rewritten, removed keys and their
+    // index rows deleted, and every other row only gets its position updated when it moved
+    public void updateFilms(String node, List<Film> films, Set<String> changedKeys, Set<String> removedKeys) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        SQLiteStatement move = db.compileStatement("UPDATE " + TABLE_FILMS + " SET " + COLUMN_POSITION + "=?"
+                + " WHERE " + COLUMN_NODE + "=? AND " + COLUMN_FILM_KEY + "=? AND " + COLUMN_POSITION + "!=?");
+        try {
+            for (String key : removedKeys) {
+                long id = findFilmId(db, node, key);
+                if (id != -1) {
+                    db.delete(TABLE_SEARCH, "docid=?", new String[]{String.valueOf(id)});
+                    db.delete(TABLE_FILMS, COLUMN_ID + "=?", new String[]{String.valueOf(id)});
+                }
+            }
+            ContentValues values = new ContentValues();
+            ContentValues searchValues = new ContentValues();
+            for (int i = 0; i < films.size(); i++) {
+                Film film = films.get(i);
+                if (changedKeys.contains(film.getKey())) {
+                    insertFilm(db, values, searchValues, node, i, film);
+                } else {
+                    move.bindLong(1, i);
+                    move.bindString(2, node);
+                    move.bindString(3, film.getKey());
+                    move.bindLong(4, i);
+                    move.executeUpdateDelete();
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            move.close();
+            db.endTransaction();
+        }
+    }
+
+    private void insertFilms(SQLiteDatabase db, String node, List<Film> films, int startPosition) {
+        ContentValues values = new ContentValues();
+        ContentValues searchValues = new ContentValues();
+        for (int i = 0; i < films.size(); i++) {
+            insertFilm(db, values, searchValues, node, startPosition + i, films.get(i));
+        }
+    }
+
+    private static void insertFilm(SQLiteDatabase db, ContentValues values, ContentValues searchValues,
+                                   String node, int position, Film film) {
+        String key = film.getKey() != null ? film.getKey() : String.valueOf(position);
+        values.clear();
+        // A film already cached under this key keeps its id; its old index row goes first
+        long id = findFilmId(db, node, key);
+        if (id != -1) {
+            values.put(COLUMN_ID, id);
+            db.delete(TABLE_SEARCH, "docid=?", new String[]{String.valueOf(id)});
+        }
+        values.put(COLUMN_NODE, node);
+        values.put(COLUMN_FILM_KEY, key);
+        values.put(COLUMN_POSITION, position);
+        values.put(COLUMN_TITLE, film.getTitle());
+        values.put(COLUMN_DESCRIPTION, film.getDescription());
+        values.put(COLUMN_POSTER, film.getPoster());
+        values.put(COLUMN_TIME, film.getTime());
+        values.put(COLUMN_TRAILER, film.getTrailer());
+        values.put(COLUMN_IMDB, film.getImdb());
+        values.put(COLUMN_YEAR, film.getYear());
+        values.put(COLUMN_GENRES, encodeGenres(film.getGenre()));
+        values.put(COLUMN_CASTS, encodeCasts(film.getCasts()));
+        long rowId = db.insertWithOnConflict(TABLE_FILMS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        if (rowId != -1) {
+            indexFilm(db, searchValues, rowId, film);
+        }
+    }
+
+    private static long findFilmId(SQLiteDatabase db, String node, String key) {
+        Cursor cursor = db.query(TABLE_FILMS, new String[]{COLUMN_ID},
+                COLUMN_NODE + "=? AND " + COLUMN_FILM_KEY + "=?", new String[]{node, key}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void indexFilm(SQLiteDatabase db, ContentValues values, long id, Film film) {
+        values.clear();
+        values.put("docid", id);
+        values.put(COLUMN_SEARCH_TITLE, film.getTitle());
+        values.put(COLUMN_SEARCH_GENRES, film.getGenre() != null ? TextUtils.join(" ", film.getGenre()) : null);
+        values.put(COLUMN_SEARCH_ACTORS, joinActors(film.getCasts()));
+        values.put(COLUMN_SEARCH_DESCRIPTION, film.getDescription());
+        db.insertWithOnConflict(TABLE_SEARCH, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // Prefix search over title, genres, actor names and description.
+    // Title matches rank first, then higher IMDB scores. Every (node, key) is its own film: array
+    // nodes reuse the keys "0", "1", ... for different films. Cancelling the signal aborts the query
+    // with an OperationCanceledException.
+    public ArrayList<Film> searchFilms(String text, int limit, CancellationSignal cancellationSignal) {
+        ArrayList<Film> found = new ArrayList<>();
+        searchFilms(text, limit, limit, cancellationSignal, (films, complete) -> found.addAll(films));
+        return found;
+    }
+
+    public interface SearchResults {
+        // films holds every result read so far; complete is false only for an early first batch
+        void onResults(ArrayList<Film> films, boolean complete);
+    }
+
+    // Same search, read from one cursor: the first firstBatch films are handed over as soon as they are
+    // read when more follow, then the whole list
+    public void searchFilms(String text, int limit, int firstBatch, CancellationSignal cancellationSignal,
+                            SearchResults results) {
+        ArrayList<Film> films = new ArrayList<>();
+        String match = FtsQuery.prefixMatch(text, null);
+        if (match == null) {
+            results.onResults(films, true);
+            return;
+        }
+        String titleMatch = FtsQuery.prefixMatch(text, COLUMN_SEARCH_TITLE);
+
+        StringBuilder columns = new StringBuilder();
+        for (String column : FILM_COLUMNS) {
+            if (columns.length() > 0) {
+                columns.append(',');
+            }
+            columns.append("f.").append(column);
+        }
+        String sql = "SELECT " + columns
+                + " FROM " + TABLE_SEARCH + " JOIN " + TABLE_FILMS + " f"
+                + " ON f." + COLUMN_ID + " = " + TABLE_SEARCH + ".docid"
+                + " WHERE " + TABLE_SEARCH + " MATCH ?"
+                + " ORDER BY CASE WHEN " + TABLE_SEARCH + ".docid IN (SELECT docid FROM " + TABLE_SEARCH
+                + " WHERE " + TABLE_SEARCH + " MATCH ?) THEN 0 ELSE 1 END, f." + COLUMN_IMDB + " DESC"
+                + " LIMIT " + limit;
+
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        Cursor cursor = db.rawQuery(sql, new String[]{match, titleMatch}, cancellationSignal);
+        try {
+            while (cursor.moveToNext()) {
+                films.add(readFilm(cursor, 0));
+                if (films.size() == firstBatch && !cursor.isLast()) {
+                    results.onResults(new ArrayList<>(films), false);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        results.onResults(films, true);
+    }
+
+    // Get cached banners in their Firebase order
+    public ArrayList<SliderItems> getBanners() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        ArrayList<SliderItems> banners = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_BANNERS, BANNER_COLUMNS,
+                null, null, null, null, COLUMN_BANNER_POSITION + " ASC");
+        try {
+            while (cursor.moveToNext()) {
+                SliderItems item = new SliderItems();
+                item.setImage(cursor.getString(0));
+                item.setName(cursor.getString(1));
+                item.setGenre(cursor.getString(2));
+                item.setAge(cursor.getString(3));
+                item.setYear(cursor.getString(4));
+                item.setTime(cursor.getString(5));
+                banners.add(item);
+            }
+        } finally {
+            cursor.close();
+        }
+        return banners;
+    }
+
+    // Replace the cached banners with a fresh snapshot
+    public void replaceBanners(List<SliderItems> banners) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_BANNERS, null, null);
+            ContentValues values = new ContentValues();
+            for (int i = 0; i < banners.size(); i++) {
+                insertBanner(db, values, i, banners.get(i));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void insertBanner(SQLiteDatabase db, ContentValues values, int position, SliderItems item) {
+        values.clear();
+        values.put(COLUMN_BANNER_POSITION, position);
+        values.put(COLUMN_BANNER_IMAGE, item.getImage());
+        values.put(COLUMN_BANNER_NAME, item.getName());
+        values.put(COLUMN_BANNER_GENRE, item.getGenre());
+        values.put(COLUMN_BANNER_AGE, item.getAge());
+        values.put(COLUMN_BANNER_YEAR, item.getYear());
+        values.put(COLUMN_BANNER_TIME, item.getTime());
+        db.insert(TABLE_BANNERS, null, values);
+    }
+
+    // Receives rows one at a time from an import, each written as soon as it arrives
+    public interface CatalogWriter {
+        void addFilm(String node, Film film);
+
+        void addBanner(SliderItems item);
+    }
+
+    public interface CatalogImport {
+        void writeTo(CatalogWriter writer) throws IOException;
+    }
+
+    // True while no film or banner is cached
+    public boolean isEmpty() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        return DatabaseUtils.queryNumEntries(db, TABLE_FILMS) == 0
+                && DatabaseUtils.queryNumEntries(db, TABLE_BANNERS) == 0;
+    }
+
+    // Runs an import in one transaction if nothing is cached yet; false when the cache had data.
+    // A failing import rolls back completely.
+    public boolean importIfEmpty(CatalogImport catalogImport) throws IOException {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (DatabaseUtils.queryNumEntries(db, TABLE_FILMS) > 0
+                    || DatabaseUtils.queryNumEntries(db, TABLE_BANNERS) > 0) {
+                return false;
+            }
+            ContentValues values = new ContentValues();
+            ContentValues searchValues = new ContentValues();
+            HashMap<String, Integer> nextFilmPositions = new HashMap<>();
+            int[] nextBannerPosition = new int[1];
+            catalogImport.writeTo(new CatalogWriter() {
+                @Override
+                public void addFilm(String node, Film film) {
+                    Integer position = nextFilmPositions.get(node);
+                    int filmPosition = position != null ? position : 0;
+                    insertFilm(db, values, searchValues, node, filmPosition, film);
+                    nextFilmPositions.put(node, filmPosition + 1);
+                }
+
+                @Override
+                public void addBanner(SliderItems item) {
+                    insertBanner(db, values, nextBannerPosition[0]++, item);
+                }
+            });
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Reads FILM_COLUMNS starting at column index first
+    private static Film readFilm(Cursor cursor, int first) {
+        Film film = new Film();
+        film.setNode(cursor.getString(first));
+        film.setKey(cursor.getString(first + 1));
+        film.setTitle(cursor.getString(first + 2));
+        film.setDescription(cursor.getString(first + 3));
+        film.setPoster(cursor.getString(first + 4));
+        film.setTime(cursor.getString(first + 5));
+        film.setTrailer(cursor.getString(first + 6));
+        film.setImdb(cursor.getInt(first + 7));
+        film.setYear(cursor.getInt(first + 8));
+        film.setGenre(decodeGenres(cursor.getString(first + 9)));
+        film.setCasts(decodeCasts(cursor.getString(first + 10)));
+        return film;
+    }
+
+    private static String joinActors(List<Cast> casts) {
+        if (casts == null) {
+            return null;
+        }
+        StringBuilder actors = new StringBuilder();
+        for (Cast cast : casts) {
+            if (cast.getActor() != null) {
+                if (actors.length() > 0) {
+                    actors.append(' ');
+                }
+                actors.append(cast.getActor());
+            }
+        }
+        return actors.toString();
+    }
+
+    private static String encodeGenres(List<String> genres) {
+        if (genres == null) {
+            return null;
+        }
+        return new JSONArray(genres).toString();
+    }
+
+    private static ArrayList<String> decodeGenres(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONArray array = new JSONArray(json);
+            ArrayList<String> genres = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                genres.add(array.getString(i));
+            }
+            return genres;
+        } catch (JSONException e) {
+            Log.w(TAG, "Dropping unreadable cached genres", e);
+            return null;
+        }
+    }
+
+    private static String encodeCasts(List<Cast> casts) {
+        if (casts == null) {
+            return null;
+        }
+        try {
+            JSONArray array = new JSONArray();
+            for (Cast cast : casts) {
+                JSONObject object = new JSONObject();
+                object.put("Actor", cast.getActor());
+                object.put("PicUrl", cast.getPicUrl());
+                array.put(object);
+            }
+            return array.toString();
+        } catch (JSONException e) {
+            Log.w(TAG, "Could not encode casts", e);
+            return null;
+        }
+    }
+
+    private static ArrayList<Cast> decodeCasts(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONArray array = new JSONArray(json);
+            ArrayList<Cast> casts = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject object = array.getJSONObject(i);
+                Cast cast = new Cast();
+                cast.setActor(object.optString("Actor", null));
+                cast.setPicUrl(object.optString("PicUrl", null));
+                casts.add(cast);
+            }
+            return casts;
+        } catch (JSONException e) {
+            Log.w(TAG, "Dropping unreadable cached casts", e);
+            return null;
+        }
+    }
+}
@@ -5,15 +5,25 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import androidx.annotation.VisibleForTesting;
+
+import com.andr.movies.Domains.SearchHistoryEntry;
+import com.andr.movies.Domains.UserSession;
+import com.andr.movies.auth.PasswordHasher;
+import com.andr.movies.auth.PasswordHashing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "MovieCenter.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = SchemaMigrations.LATEST_VERSION;
 
     // Users table
     private static final String TABLE_USERS = "users";
@@ -29,63 +39,97 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_USER_ID = "user_id";
     private static final String COLUMN_SEARCH_QUERY = "search_query";
     private static final String COLUMN_SEARCH_TIME = "search_time";
+    private static final String COLUMN_NORMALIZED_QUERY = "normalized_query";
+    private static final String COLUMN_HIT_COUNT = "hit_count";
+
+    // Entries kept per user by compactSearchHistory, most recently used first
+    public static final int MAX_SEARCH_HISTORY_PER_USER = 200;
+
+    private static DatabaseHelper instance;
+
+    private final PasswordHasher passwordHasher;
+
+    // One helper per process: its connection stays open for the app's lifetime and
+    // write-ahead logging lets readers run while a write is in progress.
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Closes and forgets the shared helper, for tests that get a fresh app per run
+    @VisibleForTesting
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
 
-    public DatabaseHelper(Context context) {
+    private DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+        passwordHasher = PasswordHashing.getInstance(context);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        // Create users table
-        String CREATE_USERS_TABLE = "CREATE TABLE " + TABLE_USERS + "("
-                + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
-                + COLUMN_FULL_NAME + " TEXT NOT NULL,"
-                + COLUMN_EMAIL + " TEXT NOT NULL UNIQUE,"
-                + COLUMN_PASSWORD + " TEXT NOT NULL,"
-                + COLUMN_CREATED_AT + " DATETIME DEFAULT CURRENT_TIMESTAMP"
-                + ")";
-
-        // Create search history table
-        String CREATE_SEARCH_HISTORY_TABLE = "CREATE TABLE " + TABLE_SEARCH_HISTORY + "("
-                + COLUMN_SEARCH_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
-                + COLUMN_USER_ID + " INTEGER,"
-                + COLUMN_SEARCH_QUERY + " TEXT NOT NULL,"
-                + COLUMN_SEARCH_TIME + " DATETIME DEFAULT CURRENT_TIMESTAMP,"
-                + "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_ID + ")"
-                + ")";
-
-        db.execSQL(CREATE_USERS_TABLE);
-        db.execSQL(CREATE_SEARCH_HISTORY_TABLE);
+        SchemaMigrations.createVersion1Tables(db);
+        SchemaMigrations.migrate(db, 1, DATABASE_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SEARCH_HISTORY);
-        onCreate(db);
+        SchemaMigrations.migrate(db, oldVersion, newVersion);
     }
 
-    // Hash password using SHA-256
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+    // UPDATE-then-INSERT, since ON CONFLICT DO UPDATE needs SQLite 3.24 (API 30).
+    // Compiled once per batch; every applied query gets CURRENT_TIMESTAMP.
+    private static final class SearchHistoryUpsert {
+        private final SQLiteStatement update;
+        private final SQLiteStatement insert;
+
+        SearchHistoryUpsert(SQLiteDatabase db) {
+            update = db.compileStatement("UPDATE " + TABLE_SEARCH_HISTORY + " SET "
+                    + COLUMN_HIT_COUNT + "=" + COLUMN_HIT_COUNT + "+1,"
+                    + COLUMN_SEARCH_QUERY + "=?,"
+                    + COLUMN_SEARCH_TIME + "=CURRENT_TIMESTAMP"
+                    + " WHERE " + COLUMN_USER_ID + "=? AND " + COLUMN_NORMALIZED_QUERY + "=?");
+            insert = db.compileStatement("INSERT INTO " + TABLE_SEARCH_HISTORY + "("
+                    + COLUMN_USER_ID + "," + COLUMN_SEARCH_QUERY + "," + COLUMN_NORMALIZED_QUERY + ","
+                    + COLUMN_HIT_COUNT + "," + COLUMN_SEARCH_TIME + ") VALUES(?,?,?,1,CURRENT_TIMESTAMP)");
+        }
+
+        void apply(int userId, String query) {
+            String display = query.trim();
+            String normalized = normalizeQuery(display);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            update.bindString(1, display);
+            update.bindLong(2, userId);
+            update.bindString(3, normalized);
+            if (update.executeUpdateDelete() == 0) {
+                insert.bindLong(1, userId);
+                insert.bindString(2, display);
+                insert.bindString(3, normalized);
+                insert.executeInsert();
             }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            return password; // Return original password if hashing fails
         }
+
+        void close() {
+            update.close();
+            insert.close();
+        }
+    }
+
+    // Case and inner whitespace do not make a different search
+    public static String normalizeQuery(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 
-    // Register new user
+    // Register new user; hashing blocks for the calibrated cost, call from a worker thread
     public boolean registerUser(String fullName, String email, String password) {
         SQLiteDatabase db = this.getWritableDatabase();
 
@@ -97,10 +141,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         ContentValues values = new ContentValues();
         values.put(COLUMN_FULL_NAME, fullName);
         values.put(COLUMN_EMAIL, email);
-        values.put(COLUMN_PASSWORD, hashPassword(password));
+        values.put(COLUMN_PASSWORD, passwordHasher.hash(password));
 
         long result = db.insert(TABLE_USERS, null, values);
-        db.close();
 
         return result != -1;
     }
@@ -113,25 +156,40 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
         boolean exists = cursor.getCount() > 0;
         cursor.close();
-        db.close();
 
         return exists;
     }
 
     // Login user
     public boolean loginUser(String email, String password) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        String hashedPassword = hashPassword(password);
+        return authenticate(email, password) != null;
+    }
 
-        Cursor cursor = db.query(TABLE_USERS, new String[]{COLUMN_ID},
-                COLUMN_EMAIL + "=? AND " + COLUMN_PASSWORD + "=?",
-                new String[]{email, hashedPassword}, null, null, null);
+    // Verify credentials and load the session in one lookup on the unique email index.
+    // Hashes from older formats or a lower cost are upgraded once the password is known.
+    public UserSession authenticate(String email, String password) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.query(TABLE_USERS, new String[]{COLUMN_ID, COLUMN_FULL_NAME, COLUMN_PASSWORD},
+                COLUMN_EMAIL + "=?", new String[]{email}, null, null, null);
 
-        boolean isValid = cursor.getCount() > 0;
+        UserSession session = null;
+        String storedHash = null;
+        if (cursor.moveToFirst()) {
+            storedHash = cursor.getString(2);
+            if (passwordHasher.verify(password, storedHash)) {
+                session = new UserSession(cursor.getInt(0), cursor.getString(1), email);
+            }
+        }
         cursor.close();
-        db.close();
 
-        return isValid;
+        if (session != null && passwordHasher.needsRehash(storedHash)) {
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_PASSWORD, passwordHasher.hash(password));
+            getWritableDatabase().update(TABLE_USERS, values, COLUMN_ID + "=?",
+                    new String[]{String.valueOf(session.getId())});
+        }
+
+        return session;
     }
 
     // Get user ID by email
@@ -145,7 +203,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             userId = cursor.getInt(0);
         }
         cursor.close();
-        db.close();
 
         return userId;
     }
@@ -161,35 +218,66 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             fullName = cursor.getString(0);
         }
         cursor.close();
-        db.close();
 
         return fullName;
     }
 
-    // Add search query to history
+    // Add search query to history, or bump the count and time of the same normalized query
     public void addSearchQuery(int userId, String query) {
-        SQLiteDatabase db = this.getWritableDatabase();
+        addSearchQueries(userId, Collections.singletonList(query));
+    }
 
-        ContentValues values = new ContentValues();
-        values.put(COLUMN_USER_ID, userId);
-        values.put(COLUMN_SEARCH_QUERY, query);
+    // Add several committed search queries to history in one transaction
+    public void addSearchQueries(int userId, List<String> queries) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SearchHistoryUpsert upsert = new SearchHistoryUpsert(db);
+            try {
+                for (String query : queries) {
+                    upsert.apply(userId, query);
+                }
+            } finally {
+                upsert.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
 
-        db.insert(TABLE_SEARCH_HISTORY, null, values);
-        db.close();
+    // Keeps the user's most recently used entries and deletes the rest; runs on the disk executor
+    public int compactSearchHistory(int userId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        String user = String.valueOf(userId);
+        return db.delete(TABLE_SEARCH_HISTORY, COLUMN_USER_ID + "=? AND " + COLUMN_SEARCH_ID + " NOT IN ("
+                        + "SELECT " + COLUMN_SEARCH_ID + " FROM " + TABLE_SEARCH_HISTORY
+                        + " WHERE " + COLUMN_USER_ID + "=?"
+                        + " ORDER BY " + COLUMN_SEARCH_TIME + " DESC, " + COLUMN_SEARCH_ID + " DESC"
+                        + " LIMIT " + MAX_SEARCH_HISTORY_PER_USER + ")",
+                new String[]{user, user});
     }
 
-    // Get recent search queries
-    public Cursor getRecentSearches(int userId, int limit) {
+    // Every history entry of a user with its hit count, for the in-memory suggestion index
+    public ArrayList<SearchHistoryEntry> getSearchHistory(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.query(TABLE_SEARCH_HISTORY, new String[]{COLUMN_SEARCH_QUERY},
+        Cursor cursor = db.query(TABLE_SEARCH_HISTORY, new String[]{COLUMN_SEARCH_QUERY, COLUMN_HIT_COUNT,
+                        "CAST(strftime('%s', " + COLUMN_SEARCH_TIME + ") AS INTEGER) * 1000"},
                 COLUMN_USER_ID + "=?", new String[]{String.valueOf(userId)},
-                null, null, COLUMN_SEARCH_TIME + " DESC", String.valueOf(limit));
+                null, null, null);
+
+        ArrayList<SearchHistoryEntry> history = new ArrayList<>(cursor.getCount());
+        while (cursor.moveToNext()) {
+            history.add(new SearchHistoryEntry(cursor.getString(0), cursor.getInt(1), cursor.getLong(2)));
+        }
+        cursor.close();
+
+        return history;
     }
 
     // Clear search history
     public void clearSearchHistory(int userId) {
         SQLiteDatabase db = this.getWritableDatabase();
         db.delete(TABLE_SEARCH_HISTORY, COLUMN_USER_ID + "=?", new String[]{String.valueOf(userId)});
-        db.close();
     }
 }
\ No newline at end of file
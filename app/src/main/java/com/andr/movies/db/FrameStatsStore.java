@@ -0,0 +1,113 @@
+package com.andr.movies.db;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.andr.movies.metrics.FrameHistogram;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Running frame-time totals per screen and UI state, one row per histogram
+ * bucket. Sessions are added on top of what is already stored, so the table
+ * holds every frame since install (or since {@link #clear()}) and can be
+ * pulled with adb before and after a UI change.
+ */
+public class FrameStatsStore {
+
+    static final String TABLE_FRAME_STATS = "frame_stats";
+    static final String COLUMN_SCREEN = "screen";
+    static final String COLUMN_UI_STATE = "ui_state";
+    static final String COLUMN_BUCKET_MS = "bucket_ms";
+    static final String COLUMN_FRAMES = "frames";
+    static final String COLUMN_JANKY_FRAMES = "janky_frames";
+
+    private final DatabaseHelper databaseHelper;
+
+    public FrameStatsStore(Context context) {
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    // Adds one session of histograms, keyed by UI state, to the stored totals of a screen
+    public void addFrames(String screen, Map<String, FrameHistogram> histograms) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        // UPDATE-then-INSERT, since ON CONFLICT DO UPDATE needs SQLite 3.24 (API 30)
+        SQLiteStatement update = db.compileStatement("UPDATE " + TABLE_FRAME_STATS + " SET "
+                + COLUMN_FRAMES + "=" + COLUMN_FRAMES + "+?,"
+                + COLUMN_JANKY_FRAMES + "=" + COLUMN_JANKY_FRAMES + "+?"
+                + " WHERE " + COLUMN_SCREEN + "=? AND " + COLUMN_UI_STATE + "=? AND " + COLUMN_BUCKET_MS + "=?");
+        SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_FRAME_STATS + "("
+                + COLUMN_FRAMES + "," + COLUMN_JANKY_FRAMES + ","
+                + COLUMN_SCREEN + "," + COLUMN_UI_STATE + "," + COLUMN_BUCKET_MS + ") VALUES(?,?,?,?,?)");
+        try {
+            for (Map.Entry<String, FrameHistogram> entry : histograms.entrySet()) {
+                FrameHistogram histogram = entry.getValue();
+                for (int bucket = 0; bucket < FrameHistogram.getBucketCount(); bucket++) {
+                    if (histogram.getFrames(bucket) == 0) {
+                        continue;
+                    }
+                    bindBucket(update, screen, entry.getKey(), histogram, bucket);
+                    if (update.executeUpdateDelete() == 0) {
+                        bindBucket(insert, screen, entry.getKey(), histogram, bucket);
+                        insert.executeInsert();
+                    }
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            update.close();
+            insert.close();
+            db.endTransaction();
+        }
+    }
+
+    private static void bindBucket(SQLiteStatement statement, String screen, String uiState,
+                                   FrameHistogram histogram, int bucket) {
+        statement.bindLong(1, histogram.getFrames(bucket));
+        statement.bindLong(2, histogram.getJankyFrames(bucket));
+        statement.bindString(3, screen);
+        statement.bindString(4, uiState);
+        statement.bindLong(5, FrameHistogram.getBucketMillis(bucket));
+    }
+
+    // Writes every stored bucket as "screen ui_state >=bucket_ms frames janky", one per line
+    public void dump(Appendable out) throws IOException {
+        Cursor cursor = databaseHelper.getReadableDatabase().query(TABLE_FRAME_STATS,
+                new String[]{COLUMN_SCREEN, COLUMN_UI_STATE, COLUMN_BUCKET_MS, COLUMN_FRAMES, COLUMN_JANKY_FRAMES},
+                null, null, null, null,
+                COLUMN_SCREEN + "," + COLUMN_UI_STATE + "," + COLUMN_BUCKET_MS);
+        try {
+            while (cursor.moveToNext()) {
+                out.append(cursor.getString(0)).append(' ')
+                        .append(cursor.getString(1)).append(" >=")
+                        .append(String.valueOf(cursor.getInt(2))).append("ms frames=")
+                        .append(String.valueOf(cursor.getLong(3))).append(" janky=")
+                        .append(String.valueOf(cursor.getLong(4))).append('\n');
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    public void dumpToFile(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (Writer writer = new FileWriter(file)) {
+            dump(writer);
+        }
+    }
+
+    // Starts a new measurement window, e.g. right before installing a build under test
+    public void clear() {
+        databaseHelper.getWritableDatabase().delete(TABLE_FRAME_STATS, null, null);
+    }
+}
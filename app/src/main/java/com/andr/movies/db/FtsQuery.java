@@ -0,0 +1,36 @@
+package com.andr.movies.db;
+
+/**
+ * Builds FTS4 MATCH expressions from free text typed by the user.
+ */
+final class FtsQuery {
+
+    private FtsQuery() {
+    }
+
+    // Every word becomes a prefix term ("star wa" -> "star* wa*"), all terms must match.
+    // Returns null when the text has no searchable characters.
+    static String prefixMatch(String text, String column) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                if (column != null) {
+                    match.append(column).append(':');
+                }
+                match.append(token).append('*');
+                token.setLength(0);
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+}
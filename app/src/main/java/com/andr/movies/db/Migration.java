@@ -0,0 +1,28 @@
+package com.andr.movies.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * One schema step, moving the database from {@code toVersion - 1} to
+ * {@code toVersion} without losing existing rows.
+ */
+final class Migration {
+
+    interface Step {
+        void apply(SQLiteDatabase db);
+    }
+
+    final int toVersion;
+    final String description;
+    private final Step step;
+
+    Migration(int toVersion, String description, Step step) {
+        this.toVersion = toVersion;
+        this.description = description;
+        this.step = step;
+    }
+
+    void apply(SQLiteDatabase db) {
+        step.apply(db);
+    }
+}
@@ -0,0 +1,271 @@
+package com.andr.movies.db;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ordered schema history. Fresh installs create the version 1 tables and
+ * replay every step, upgrades replay the steps after their old version, so
+ * both end with the same schema. Each step carries its own SQL, frozen as it
+ * shipped, so later changes to the stores cannot change what an old step
+ * does. New schema changes are appended here and bump
+ * {@link #LATEST_VERSION}; existing steps are never edited.
+ */
+final class SchemaMigrations {
+    private static final String TAG = "SchemaMigrations";
+
+    static final int LATEST_VERSION = 7;
+
+    private static final List<Migration> STEPS = Arrays.asList(
+            new Migration(2, "home feed cache tables", SchemaMigrations::toVersion2),
+            new Migration(3, "catalog full-text search index", SchemaMigrations::toVersion3),
+            new Migration(4, "search history index on (user_id, search_time)", SchemaMigrations::toVersion4),
+            new Migration(5, "one search history row per normalized query, with hit counts",
+                    SchemaMigrations::toVersion5),
+            new Migration(6, "per-screen frame time histograms", SchemaMigrations::toVersion6),
+            new Migration(7, "stable film ids for the full-text index", SchemaMigrations::toVersion7)
+    );
+
+    private SchemaMigrations() {
+    }
+
+    // Runs the steps after fromVersion up to toVersion; the caller's transaction makes it all-or-nothing
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        int version = fromVersion;
+        for (Migration migration : STEPS) {
+            if (migration.toVersion <= fromVersion || migration.toVersion > toVersion) {
+                continue;
+            }
+            if (migration.toVersion != version + 1) {
+                throw new IllegalStateException("No migration from version " + version
+                        + " to " + migration.toVersion);
+            }
+            Log.i(TAG, "Migrating to version " + migration.toVersion + ": " + migration.description);
+            migration.apply(db);
+            version = migration.toVersion;
+        }
+        if (version != toVersion) {
+            throw new IllegalStateException("No migration from version " + version + " to " + toVersion);
+        }
+    }
+
+    // The original schema, as the first release created it
+    static void createVersion1Tables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE users("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "full_name TEXT NOT NULL,"
+                + "email TEXT NOT NULL UNIQUE,"
+                + "password TEXT NOT NULL,"
+                + "created_at DATETIME DEFAULT CURRENT_TIMESTAMP"
+                + ")");
+        db.execSQL("CREATE TABLE search_history("
+                + "search_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "user_id INTEGER,"
+                + "search_query TEXT NOT NULL,"
+                + "search_time DATETIME DEFAULT CURRENT_TIMESTAMP,"
+                + "FOREIGN KEY(user_id) REFERENCES users(id)"
+                + ")");
+    }
+
+    private static void toVersion2(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE catalog_films("
+                + "node TEXT NOT NULL,"
+                + "film_key TEXT NOT NULL,"
+                + "position INTEGER NOT NULL,"
+                + "title TEXT,"
+                + "description TEXT,"
+                + "poster TEXT,"
+                + "time TEXT,"
+                + "trailer TEXT,"
+                + "imdb INTEGER,"
+                + "year INTEGER,"
+                + "genres TEXT,"
+                + "casts TEXT,"
+                + "PRIMARY KEY(node,film_key)"
+                + ")");
+        db.execSQL("CREATE TABLE catalog_banners("
+                + "position INTEGER PRIMARY KEY,"
+                + "image TEXT,"
+                + "name TEXT,"
+                + "genre TEXT,"
+                + "age TEXT,"
+                + "year TEXT,"
+                + "time TEXT"
+                + ")");
+    }
+
+    // Indexes the films already cached; genres and casts are stored as JSON, the index wants plain words
+    private static void toVersion3(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE catalog_search USING fts4(title,genres,actors,description)");
+        Cursor cursor = db.rawQuery("SELECT rowid, title, genres, casts, description FROM catalog_films", null);
+        SQLiteStatement insert = db.compileStatement("INSERT INTO catalog_search"
+                + "(docid, title, genres, actors, description) VALUES(?,?,?,?,?)");
+        try {
+            while (cursor.moveToNext()) {
+                insert.bindLong(1, cursor.getLong(0));
+                bindNullable(insert, 2, cursor.getString(1));
+                bindNullable(insert, 3, joinJson(cursor.getString(2), null));
+                bindNullable(insert, 4, joinJson(cursor.getString(3), "Actor"));
+                bindNullable(insert, 5, cursor.getString(4));
+                insert.executeInsert();
+            }
+        } finally {
+            insert.close();
+            cursor.close();
+        }
+    }
+
+    private static void toVersion4(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_search_history_user_time"
+                + " ON search_history(user_id,search_time DESC,search_query)");
+    }
+
+    // Rebuilds search_history with one row per (user, normalized query), folding repeats into a hit count
+    private static void toVersion5(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE search_history RENAME TO search_history_old");
+        db.execSQL("DROP INDEX IF EXISTS idx_search_history_user_time");
+        db.execSQL("CREATE TABLE search_history("
+                + "search_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "user_id INTEGER,"
+                + "search_query TEXT NOT NULL,"
+                + "normalized_query TEXT NOT NULL,"
+                + "hit_count INTEGER NOT NULL DEFAULT 1,"
+                + "search_time DATETIME DEFAULT CURRENT_TIMESTAMP,"
+                + "UNIQUE(user_id,normalized_query),"
+                + "FOREIGN KEY(user_id) REFERENCES users(id)"
+                + ")");
+        db.execSQL("CREATE INDEX idx_search_history_user_time"
+                + " ON search_history(user_id,search_time DESC,search_query)");
+
+        // Replayed oldest first so the surviving row keeps the latest spelling and time
+        Cursor cursor = db.rawQuery("SELECT user_id, search_query, search_time FROM search_history_old"
+                + " ORDER BY search_time, search_id", null);
+        SQLiteStatement update = db.compileStatement("UPDATE search_history"
+                + " SET hit_count=hit_count+1, search_query=?, search_time=?"
+                + " WHERE user_id=? AND normalized_query=?");
+        SQLiteStatement insert = db.compileStatement("INSERT INTO search_history"
+                + "(user_id, search_query, normalized_query, hit_count, search_time) VALUES(?,?,?,1,?)");
+        try {
+            while (cursor.moveToNext()) {
+                long userId = cursor.getLong(0);
+                String display = cursor.getString(1).trim();
+                String normalized = display.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+                String time = cursor.getString(2);
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                update.bindString(1, display);
+                bindNullable(update, 2, time);
+                update.bindLong(3, userId);
+                update.bindString(4, normalized);
+                if (update.executeUpdateDelete() == 0) {
+                    insert.bindLong(1, userId);
+                    insert.bindString(2, display);
+                    insert.bindString(3, normalized);
+                    bindNullable(insert, 4, time);
+                    insert.executeInsert();
+                }
+            }
+        } finally {
+            update.close();
+            insert.close();
+            cursor.close();
+        }
+        db.execSQL("DROP TABLE search_history_old");
+    }
+
+    private static void toVersion6(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE frame_stats("
+                + "screen TEXT NOT NULL,"
+                + "ui_state TEXT NOT NULL,"
+                + "bucket_ms INTEGER NOT NULL,"
+                + "frames INTEGER NOT NULL DEFAULT 0,"
+                + "janky_frames INTEGER NOT NULL DEFAULT 0,"
+                + "PRIMARY KEY(screen,ui_state,bucket_ms)"
+                + ")");
+    }
+
+    // catalog_search pointed at the implicit rowid of catalog_films, which VACUUM may renumber and
+    // INSERT OR REPLACE changes; films get an INTEGER PRIMARY KEY and the index is re-keyed on it.
+    private static void toVersion7(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE catalog_films RENAME TO catalog_films_old");
+        db.execSQL("ALTER TABLE catalog_search RENAME TO catalog_search_old");
+        db.execSQL("CREATE TABLE catalog_films("
+                + "id INTEGER PRIMARY KEY,"
+                + "node TEXT NOT NULL,"
+                + "film_key TEXT NOT NULL,"
+                + "position INTEGER NOT NULL,"
+                + "title TEXT,"
+                + "description TEXT,"
+                + "poster TEXT,"
+                + "time TEXT,"
+                + "trailer TEXT,"
+                + "imdb INTEGER,"
+                + "year INTEGER,"
+                + "genres TEXT,"
+                + "casts TEXT,"
+                + "UNIQUE(node,film_key)"
+                + ")");
+        db.execSQL("CREATE VIRTUAL TABLE catalog_search USING fts4(title,genres,actors,description)");
+        db.execSQL("INSERT INTO catalog_films(node, film_key, position, title, description, poster,"
+                + " time, trailer, imdb, year, genres, casts)"
+                + " SELECT node, film_key, position, title, description, poster,"
+                + " time, trailer, imdb, year, genres, casts"
+                + " FROM catalog_films_old ORDER BY node, position");
+        db.execSQL("INSERT INTO catalog_search(docid, title, genres, actors, description)"
+                + " SELECT f.id, s.title, s.genres, s.actors, s.description"
+                + " FROM catalog_search_old s"
+                + " JOIN catalog_films_old o ON o.rowid = s.docid"
+                + " JOIN catalog_films f ON f.node = o.node AND f.film_key = o.film_key");
+        db.execSQL("DROP TABLE catalog_search_old");
+        db.execSQL("DROP TABLE catalog_films_old");
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value != null) {
+            statement.bindString(index, value);
+        } else {
+            statement.bindNull(index);
+        }
+    }
+
+    // Space-joined strings of a JSON array, or of one field of its objects when field is set
+    private static String joinJson(String json, String field) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONArray array = new JSONArray(json);
+            StringBuilder words = new StringBuilder();
+            for (int i = 0; i < array.length(); i++) {
+                String word;
+                if (field == null) {
+                    word = array.optString(i, null);
+                } else {
+                    JSONObject object = array.optJSONObject(i);
+                    word = object != null ? object.optString(field, null) : null;
+                }
+                if (word != null) {
+                    if (words.length() > 0) {
+                        words.append(' ');
+                    }
+                    words.append(word);
+                }
+            }
+            return words.toString();
+        } catch (JSONException e) {
+            Log.w(TAG, "Indexing film without unreadable " + (field != null ? "casts" : "genres"), e);
+            return null;
+        }
+    }
+}
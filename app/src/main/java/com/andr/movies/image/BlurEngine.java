@@ -0,0 +1,39 @@
+package com.andr.movies.image;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.view.ViewGroup;
+
+import eightbitlab.com.blurview.BlurAlgorithm;
+import eightbitlab.com.blurview.BlurView;
+import eightbitlab.com.blurview.BlurViewFacade;
+import eightbitlab.com.blurview.RenderScriptBlur;
+
+/**
+ * Sets up BlurViews with the cheapest blur that looks right: RenderEffect on
+ * the GPU on API 31+, otherwise a RenderScript blur that is recomputed only
+ * when the content under the view changes. Radii are given in screen pixels
+ * and converted to the downscaled capture, so every {@link BlurQuality}
+ * gives the same look.
+ */
+public final class BlurEngine {
+
+    private BlurEngine() {
+    }
+
+    public static BlurViewFacade setup(BlurView blurView, ViewGroup rootView, Drawable frameClearDrawable,
+                                       float radiusPx, BlurQuality quality) {
+        return blurView.setupWith(rootView, newAlgorithm(blurView.getContext(), quality))
+                .setFrameClearDrawable(frameClearDrawable)
+                .setBlurRadius(radiusPx / quality.scaleFactor);
+    }
+
+    static BlurAlgorithm newAlgorithm(Context context, BlurQuality quality) {
+        if (quality.allowRenderEffect && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            return new RenderNodeBlur(() -> new CachedBitmapBlur(new RenderScriptBlur(context), quality.scaleFactor),
+                    quality.scaleFactor);
+        }
+        return new CachedBitmapBlur(new RenderScriptBlur(context), quality.scaleFactor);
+    }
+}
@@ -0,0 +1,30 @@
+package com.andr.movies.image;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+/**
+ * Quality/cost trade-off of a {@link BlurEngine} blur. The captured content is
+ * downscaled by {@link #scaleFactor} before blurring, so lower quality means
+ * fewer pixels to capture and blur; LOW also skips the GPU path and always
+ * reuses the last blur while the content under it is unchanged.
+ */
+public enum BlurQuality {
+    HIGH(4f, true),
+    BALANCED(6f, true),
+    LOW(10f, false);
+
+    final float scaleFactor;
+    final boolean allowRenderEffect;
+
+    BlurQuality(float scaleFactor, boolean allowRenderEffect) {
+        this.scaleFactor = scaleFactor;
+        this.allowRenderEffect = allowRenderEffect;
+    }
+
+    // LOW on devices the system itself treats as low-RAM, BALANCED elsewhere
+    public static BlurQuality forDevice(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager != null && activityManager.isLowRamDevice() ? LOW : BALANCED;
+    }
+}
@@ -0,0 +1,116 @@
+package com.andr.movies.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+import androidx.annotation.NonNull;
+
+import eightbitlab.com.blurview.BlurAlgorithm;
+
+/**
+ * Bitmap blur that only blurs again when the captured content changed.
+ * BlurView captures the views under it before every draw, including the
+ * draws caused by its own children (the cast list scrolling inside it);
+ * those captures are identical, so the previous result is copied back
+ * instead of paying for the blur. The comparison is a memcmp of the small,
+ * downscaled capture.
+ */
+final class CachedBitmapBlur implements BlurAlgorithm {
+    private static final Paint COPY_PAINT = new Paint();
+
+    static {
+        COPY_PAINT.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+    }
+
+    private final BlurAlgorithm delegate;
+    private final float scaleFactor;
+
+    private Bitmap lastInput;
+    private Bitmap lastOutput;
+    private float lastRadius;
+    // Canvas over BlurView's capture bitmap, kept while BlurView keeps the bitmap
+    private Bitmap captureBitmap;
+    private Canvas captureCanvas;
+
+    CachedBitmapBlur(BlurAlgorithm delegate, float scaleFactor) {
+        this.delegate = delegate;
+        this.scaleFactor = scaleFactor;
+    }
+
+    // Blurs in place and returns the same bitmap, like RenderScriptBlur
+    @Override
+    public Bitmap blur(Bitmap bitmap, float blurRadius) {
+        if (lastOutput != null && blurRadius == lastRadius && bitmap.sameAs(lastInput)) {
+            canvasFor(bitmap).drawBitmap(lastOutput, 0, 0, COPY_PAINT);
+            return bitmap;
+        }
+        lastInput = copyInto(lastInput, bitmap);
+        Bitmap blurred = delegate.blur(bitmap, blurRadius);
+        if (blurred != bitmap) {
+            canvasFor(bitmap).drawBitmap(blurred, 0, 0, COPY_PAINT);
+        }
+        lastOutput = copyInto(lastOutput, bitmap);
+        lastRadius = blurRadius;
+        return bitmap;
+    }
+
+    private Canvas canvasFor(Bitmap bitmap) {
+        if (captureBitmap != bitmap) {
+            captureBitmap = bitmap;
+            captureCanvas = new Canvas(bitmap);
+        }
+        return captureCanvas;
+    }
+
+    // Reuses target when it still matches the source, so steady-state misses allocate nothing
+    private static Bitmap copyInto(Bitmap target, Bitmap source) {
+        if (target == null || target.getWidth() != source.getWidth()
+                || target.getHeight() != source.getHeight() || target.getConfig() != source.getConfig()) {
+            if (target != null) {
+                target.recycle();
+            }
+            return source.copy(source.getConfig(), true);
+        }
+        new Canvas(target).drawBitmap(source, 0, 0, COPY_PAINT);
+        return target;
+    }
+
+    @Override
+    public void destroy() {
+        delegate.destroy();
+        if (lastInput != null) {
+            lastInput.recycle();
+            lastInput = null;
+        }
+        if (lastOutput != null) {
+            lastOutput.recycle();
+            lastOutput = null;
+        }
+        captureBitmap = null;
+        captureCanvas = null;
+    }
+
+    @Override
+    public boolean canModifyBitmap() {
+        return true;
+    }
+
+    @NonNull
+    @Override
+    public Bitmap.Config getSupportedBitmapConfig() {
+        return delegate.getSupportedBitmapConfig();
+    }
+
+    @Override
+    public float scaleFactor() {
+        return scaleFactor;
+    }
+
+    @Override
+    public void render(@NonNull Canvas canvas, @NonNull Bitmap bitmap) {
+        delegate.render(canvas, bitmap);
+    }
+}
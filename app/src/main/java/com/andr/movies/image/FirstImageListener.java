@@ -0,0 +1,45 @@
+package com.andr.movies.image;
+
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+/**
+ * Runs a callback once, when the first of the requests it is attached to
+ * delivers its image. Used to time the first poster of a screen.
+ */
+public class FirstImageListener implements RequestListener<Drawable> {
+    private Runnable onFirstImage;
+
+    public FirstImageListener(Runnable onFirstImage) {
+        this.onFirstImage = onFirstImage;
+    }
+
+    // False once fired, so binds can stop attaching it
+    public boolean isPending() {
+        return onFirstImage != null;
+    }
+
+    @Override
+    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target,
+                                   @NonNull DataSource dataSource, boolean isFirstResource) {
+        if (onFirstImage != null) {
+            Runnable callback = onFirstImage;
+            onFirstImage = null;
+            callback.run();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+        return false;
+    }
+}
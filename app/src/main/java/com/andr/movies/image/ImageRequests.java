@@ -0,0 +1,129 @@
+package com.andr.movies.image;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+
+import com.andr.movies.Domains.Cast;
+import com.andr.movies.R;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
+import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.util.List;
+
+/**
+ * Shared Glide requests for posters, banners and cast avatars. Transformations
+ * are built once per process and every request decodes at the size of the view
+ * it is shown in, so list binds and preloads produce the same cache keys.
+ * Posters are decoded untransformed (cropped and rounded by their views at
+ * draw time), so the card's bitmap can stand in for the detail header while
+ * the header-sized decode loads.
+ */
+public final class ImageRequests {
+
+    // Corners the poster views clip to (formerly baked in as RoundedCorners(30) / GranularRoundedCorners)
+    public static final float POSTER_CORNER_RADIUS_PX = 30f;
+    public static final float POSTER_HEADER_CORNER_RADIUS_PX = 50f;
+
+    private static RequestOptions posterOptions;
+    private static RequestOptions posterHeaderOptions;
+    private static RequestOptions bannerOptions;
+    private static RequestOptions castOptions;
+
+    private ImageRequests() {
+    }
+
+    public static RequestBuilder<Drawable> poster(RequestManager glide, Context context, String url) {
+        ensureOptions(context);
+        return glide.load(url).apply(posterOptions);
+    }
+
+    // Header-sized poster; the card's request is its thumbnail, so the card's bitmap is shown from
+    // memory until it lands and thumbnailListener hears about that first frame
+    public static RequestBuilder<Drawable> posterHeader(RequestManager glide, Context context, String url,
+                                                       RequestListener<Drawable> thumbnailListener) {
+        ensureOptions(context);
+        return glide.load(url)
+                .apply(posterHeaderOptions)
+                .thumbnail(poster(glide, context, url).addListener(thumbnailListener));
+    }
+
+    public static RequestBuilder<Drawable> banner(RequestManager glide, Context context, String url) {
+        ensureOptions(context);
+        return glide.load(url).apply(bannerOptions);
+    }
+
+    public static RequestBuilder<Drawable> castAvatar(RequestManager glide, Context context, String url) {
+        ensureOptions(context);
+        return glide.load(url).apply(castOptions);
+    }
+
+    // Warms the avatars of a whole cast list, so the row binds from memory when it is laid out
+    public static void prefetchCastAvatars(RequestManager glide, Context context, List<Cast> casts) {
+        for (Cast cast : casts) {
+            if (cast.getPicUrl() != null) {
+                castAvatar(glide, context, cast.getPicUrl()).preload();
+            }
+        }
+    }
+
+    public static int posterWidth(Context context) {
+        return context.getResources().getDimensionPixelSize(R.dimen.poster_width);
+    }
+
+    public static int posterHeight(Context context) {
+        return context.getResources().getDimensionPixelSize(R.dimen.poster_height);
+    }
+
+    public static int posterHeaderWidth(Context context) {
+        return context.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    public static int posterHeaderHeight(Context context) {
+        return context.getResources().getDimensionPixelSize(R.dimen.poster_header_height);
+    }
+
+    private static synchronized void ensureOptions(Context context) {
+        if (posterOptions != null) {
+            return;
+        }
+        Resources resources = context.getResources();
+        int posterWidth = resources.getDimensionPixelSize(R.dimen.poster_width);
+        int posterHeight = resources.getDimensionPixelSize(R.dimen.poster_height);
+        // The header spans the screen width
+        int headerWidth = resources.getDisplayMetrics().widthPixels;
+        int headerHeight = resources.getDimensionPixelSize(R.dimen.poster_header_height);
+        int avatarSize = resources.getDimensionPixelSize(R.dimen.cast_avatar_size);
+        int bannerWidth = resources.getDisplayMetrics().widthPixels
+                - 2 * resources.getDimensionPixelSize(R.dimen.banner_side_padding);
+        int bannerHeight = resources.getDimensionPixelSize(R.dimen.banner_height);
+
+        // dontTransform also stops into(ImageView) from adding a scale-type crop to the cache key
+        posterOptions = new RequestOptions()
+                .dontTransform()
+                .override(posterWidth, posterHeight)
+                .lock();
+        posterHeaderOptions = new RequestOptions()
+                .dontTransform()
+                .override(headerWidth, headerHeight)
+                .lock();
+        bannerOptions = new RequestOptions()
+                .transform(new CenterCrop(), new RoundedCorners(60))
+                .override(bannerWidth, bannerHeight)
+                .lock();
+        // Avatars are cropped once to a small opaque square and only that thumbnail goes to disk;
+        // the circle is clipped by ShapeableImageView at draw time
+        castOptions = new RequestOptions()
+                .centerCrop()
+                .override(avatarSize, avatarSize)
+                .format(DecodeFormat.PREFER_RGB_565)
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                .lock();
+    }
+}
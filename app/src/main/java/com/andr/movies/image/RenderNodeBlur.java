@@ -0,0 +1,99 @@
+package com.andr.movies.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderEffect;
+import android.graphics.RenderNode;
+import android.graphics.Shader;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.util.function.Supplier;
+
+import eightbitlab.com.blurview.BlurAlgorithm;
+
+/**
+ * API 31+ blur: the capture is drawn through a RenderNode carrying a blur
+ * RenderEffect, so the blur runs on the GPU as part of the frame and nothing
+ * is blurred on the CPU. Software canvases (e.g. View#draw into a bitmap for
+ * a screenshot) fall back to a bitmap blur, created on the first such draw
+ * so the usual all-GPU case never sets up RenderScript.
+ */
+@RequiresApi(Build.VERSION_CODES.S)
+final class RenderNodeBlur implements BlurAlgorithm {
+    private final RenderNode node = new RenderNode("BlurView");
+    private final Supplier<BlurAlgorithm> softwareFallbackFactory;
+    private final float scaleFactor;
+
+    private BlurAlgorithm softwareFallback;
+    private float radius;
+    private float effectRadius = -1;
+    private int width;
+    private int height;
+
+    RenderNodeBlur(Supplier<BlurAlgorithm> softwareFallbackFactory, float scaleFactor) {
+        this.softwareFallbackFactory = softwareFallbackFactory;
+        this.scaleFactor = scaleFactor;
+    }
+
+    // Only remembers the radius; the blur itself is applied when the capture is drawn
+    @Override
+    public Bitmap blur(Bitmap bitmap, float blurRadius) {
+        radius = blurRadius;
+        return bitmap;
+    }
+
+    @Override
+    public void render(@NonNull Canvas canvas, @NonNull Bitmap bitmap) {
+        if (!canvas.isHardwareAccelerated()) {
+            if (softwareFallback == null) {
+                softwareFallback = softwareFallbackFactory.get();
+            }
+            softwareFallback.render(canvas, softwareFallback.blur(bitmap, radius));
+            return;
+        }
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            width = bitmap.getWidth();
+            height = bitmap.getHeight();
+            node.setPosition(0, 0, width, height);
+        }
+        if (radius != effectRadius) {
+            effectRadius = radius;
+            node.setRenderEffect(radius > 0
+                    ? RenderEffect.createBlurEffect(radius, radius, Shader.TileMode.MIRROR)
+                    : null);
+        }
+        RecordingCanvas recording = node.beginRecording();
+        recording.drawBitmap(bitmap, 0, 0, null);
+        node.endRecording();
+        canvas.drawRenderNode(node);
+    }
+
+    @Override
+    public void destroy() {
+        node.discardDisplayList();
+        if (softwareFallback != null) {
+            softwareFallback.destroy();
+            softwareFallback = null;
+        }
+    }
+
+    @Override
+    public boolean canModifyBitmap() {
+        return true;
+    }
+
+    @NonNull
+    @Override
+    public Bitmap.Config getSupportedBitmapConfig() {
+        return Bitmap.Config.ARGB_8888;
+    }
+
+    @Override
+    public float scaleFactor() {
+        return scaleFactor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.andr.movies.image;
+
+import android.graphics.Outline;
+import android.view.View;
+import android.view.ViewOutlineProvider;
+
+/**
+ * Rounds a view's corners at draw time by clipping to its outline, so images
+ * keep one untransformed bitmap in Glide's cache whatever the corners of the
+ * screen showing them. Clipping to a round rect outline runs in the render
+ * thread and costs nothing per bind.
+ */
+public final class RoundedOutline extends ViewOutlineProvider {
+    private final float radiusPx;
+    private final boolean roundTop;
+
+    private RoundedOutline(float radiusPx, boolean roundTop) {
+        this.radiusPx = radiusPx;
+        this.roundTop = roundTop;
+    }
+
+    public static void clipAllCorners(View view, float radiusPx) {
+        apply(view, new RoundedOutline(radiusPx, true));
+    }
+
+    public static void clipBottomCorners(View view, float radiusPx) {
+        apply(view, new RoundedOutline(radiusPx, false));
+    }
+
+    private static void apply(View view, RoundedOutline outline) {
+        view.setOutlineProvider(outline);
+        view.setClipToOutline(true);
+    }
+
+    @Override
+    public void getOutline(View view, Outline outline) {
+        // Bottom-only rounding: the top corners are pushed above the view and clipped away
+        int top = roundTop ? 0 : -Math.round(radiusPx);
+        outline.setRoundRect(0, top, view.getWidth(), view.getHeight(), radiusPx);
+    }
+}
@@ -0,0 +1,10 @@
+package com.andr.movies.metrics;
+
+/**
+ * Monotonic time source for the metrics registry; tests substitute a fake one.
+ */
+public interface Clock {
+    Clock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
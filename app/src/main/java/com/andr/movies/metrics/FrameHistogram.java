@@ -0,0 +1,61 @@
+package com.andr.movies.metrics;
+
+/**
+ * Frame durations of one screen in one UI state, counted into fixed buckets
+ * around the 60, 90 and 120 Hz frame budgets. Each bucket also counts the
+ * frames the platform reported as janky, so a slow frame during a fling and
+ * a slow frame that was expected (first layout) stay apart.
+ */
+public final class FrameHistogram {
+    // Lower bound of each bucket in milliseconds; the last bucket is open-ended
+    private static final int[] BUCKET_MILLIS = {0, 8, 11, 16, 24, 33, 50, 100, 200, 700};
+
+    private final long[] frames = new long[BUCKET_MILLIS.length];
+    private final long[] jankyFrames = new long[BUCKET_MILLIS.length];
+    private long count;
+
+    public void record(long durationNanos, boolean janky) {
+        int bucket = bucketOf(durationNanos / 1_000_000L);
+        frames[bucket]++;
+        if (janky) {
+            jankyFrames[bucket]++;
+        }
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getJankyCount() {
+        long janky = 0;
+        for (long bucket : jankyFrames) {
+            janky += bucket;
+        }
+        return janky;
+    }
+
+    public static int getBucketCount() {
+        return BUCKET_MILLIS.length;
+    }
+
+    public static int getBucketMillis(int bucket) {
+        return BUCKET_MILLIS[bucket];
+    }
+
+    public long getFrames(int bucket) {
+        return frames[bucket];
+    }
+
+    public long getJankyFrames(int bucket) {
+        return jankyFrames[bucket];
+    }
+
+    static int bucketOf(long millis) {
+        int bucket = 0;
+        while (bucket + 1 < BUCKET_MILLIS.length && millis >= BUCKET_MILLIS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,168 @@
+package com.andr.movies.metrics;
+
+import android.app.Activity;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.metrics.performance.FrameData;
+import androidx.metrics.performance.JankStats;
+import androidx.metrics.performance.PerformanceMetricsState;
+import androidx.metrics.performance.StateInfo;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
+
+import com.andr.movies.data.AppExecutors;
+import com.andr.movies.db.FrameStatsStore;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Per-activity JankStats listener. Every frame lands in the histogram of the
+ * UI state it was drawn in ("idle", or the scrolling lists and pagers with
+ * how they move), and the session is added to {@link FrameStatsStore} when
+ * the activity pauses.
+ */
+public final class FrameMonitor implements JankStats.OnFrameListener {
+    public static final String SCREEN_HOME = "home";
+    public static final String SCREEN_DETAIL = "detail";
+
+    static final String STATE_IDLE = "idle";
+    private static final String DRAGGING = "dragging";
+    private static final String SETTLING = "settling";
+    private static final String AUTOPLAY = "autoplay";
+
+    private final String screen;
+    private final JankStats jankStats;
+    private final PerformanceMetricsState.Holder stateHolder;
+    private final FrameStatsStore store;
+    private final AppExecutors executors;
+    // Values this monitor has put, read and written on the main thread only
+    private final HashMap<String, String> activeStates = new HashMap<>();
+    // Frames arrive on the FrameMetrics thread on API 24+, so the histograms are guarded by this
+    private HashMap<String, FrameHistogram> histograms = new HashMap<>();
+
+    // Call after setContentView; tracking starts paused until resume()
+    public FrameMonitor(Activity activity, String screen) {
+        this.screen = screen;
+        store = new FrameStatsStore(activity);
+        executors = AppExecutors.getInstance();
+        jankStats = JankStats.createAndTrack(activity.getWindow(), this);
+        jankStats.setTrackingEnabled(false);
+        stateHolder = PerformanceMetricsState.getHolderForHierarchy(activity.getWindow().getDecorView());
+    }
+
+    public void resume() {
+        jankStats.setTrackingEnabled(true);
+    }
+
+    // Stops counting and queues this session's frames for the local table
+    public void pause() {
+        jankStats.setTrackingEnabled(false);
+        HashMap<String, FrameHistogram> session;
+        synchronized (this) {
+            if (histograms.isEmpty()) {
+                return;
+            }
+            session = histograms;
+            histograms = new HashMap<>();
+        }
+        executors.diskIO().execute(() -> store.addFrames(screen, session));
+    }
+
+    // Tags frames with "<view id>=dragging|settling" while the list moves
+    public void trackScrolling(RecyclerView recyclerView) {
+        String name = stateKey(recyclerView);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                onScrollState(name, newState);
+            }
+        });
+    }
+
+    // Same as trackScrolling, for a pager; autoplay turns are tagged through markAutoplay
+    public void trackPager(ViewPager2 pager) {
+        String name = stateKey(pager);
+        pager.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageScrollStateChanged(int state) {
+                onScrollState(name, state);
+            }
+        });
+    }
+
+    // Call right before a programmatic page turn; the tag holds until the pager is idle again
+    public void markAutoplay(ViewPager2 pager) {
+        putState(stateKey(pager), AUTOPLAY);
+    }
+
+    // The layout id names the state, e.g. "recyclerViewTopMovies"
+    private static String stateKey(View view) {
+        return view.getResources().getResourceEntryName(view.getId());
+    }
+
+    // RecyclerView and ViewPager2 share the IDLE/DRAGGING/SETTLING values
+    private void onScrollState(String name, int state) {
+        if (state == RecyclerView.SCROLL_STATE_DRAGGING) {
+            putState(name, DRAGGING);
+        } else if (state == RecyclerView.SCROLL_STATE_SETTLING) {
+            // A fling keeps the tag of what started it (drag or autoplay)
+            if (!activeStates.containsKey(name)) {
+                putState(name, SETTLING);
+            }
+        } else {
+            removeState(name);
+        }
+    }
+
+    private void putState(String key, String value) {
+        activeStates.put(key, value);
+        PerformanceMetricsState state = stateHolder.getState();
+        if (state != null) {
+            state.putState(key, value);
+        }
+    }
+
+    private void removeState(String key) {
+        if (activeStates.remove(key) == null) {
+            return;
+        }
+        PerformanceMetricsState state = stateHolder.getState();
+        if (state != null) {
+            state.removeState(key);
+        }
+    }
+
+    @Override
+    public void onFrame(@NonNull FrameData frameData) {
+        // frameData is reused by JankStats, so read it before returning
+        String uiState = uiState(frameData.getStates());
+        synchronized (this) {
+            FrameHistogram histogram = histograms.get(uiState);
+            if (histogram == null) {
+                histogram = new FrameHistogram();
+                histograms.put(uiState, histogram);
+            }
+            histogram.record(frameData.getFrameDurationUiNanos(), frameData.isJank());
+        }
+    }
+
+    // "idle", or the active states sorted by key: "recyclerViewTopMovies=dragging,viewPager2=autoplay"
+    static String uiState(List<StateInfo> states) {
+        if (states.isEmpty()) {
+            return STATE_IDLE;
+        }
+        if (states.size() == 1) {
+            StateInfo only = states.get(0);
+            return only.getKey() + "=" + only.getState();
+        }
+        String[] parts = new String[states.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = states.get(i).getKey() + "=" + states.get(i).getState();
+        }
+        Arrays.sort(parts);
+        return String.join(",", parts);
+    }
+}
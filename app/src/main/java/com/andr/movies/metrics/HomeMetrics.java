@@ -0,0 +1,41 @@
+package com.andr.movies.metrics;
+
+/**
+ * Names of the home screen startup sections, one histogram per feed node
+ * (Banners, Items, Upcomming).
+ */
+public final class HomeMetrics {
+
+    private HomeMetrics() {
+    }
+
+    // Firebase request until its snapshot arrives
+    public static String fetch(String node) {
+        return "home.fetch." + node;
+    }
+
+    // Snapshot to domain objects, on the decode executor
+    public static String decode(String node) {
+        return "home.decode." + node;
+    }
+
+    // Layout manager, adapter and listeners of a row or the carousel
+    public static String adapterSetup(String node) {
+        return "home.adapter_setup." + node;
+    }
+
+    // MainActivity.onCreate until the first items of a node, cached or fresh, are on screen
+    public static String firstContent(String node) {
+        return "home.first_content." + node;
+    }
+
+    // MainActivity.onCreate until the network answer of a node is on screen
+    public static String freshContent(String node) {
+        return "home.fresh_content." + node;
+    }
+
+    // MainActivity.onCreate until the first image of a node is decoded and shown
+    public static String firstImage(String node) {
+        return "home.first_image." + node;
+    }
+}
@@ -0,0 +1,100 @@
+package com.andr.movies.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram over exponential buckets, each 25% wider than the one
+ * before, from 50 microseconds to two minutes. Recording is allocation-free; count,
+ * min, max and mean are exact, percentiles are accurate to one bucket.
+ */
+public final class LatencyHistogram {
+    private static final long FIRST_BOUND_MICROS = 50;
+    private static final long LAST_BOUND_MICROS = 120_000_000L;
+    private static final double GROWTH = 1.25;
+    private static final long[] BOUNDS_MICROS = buildBounds();
+
+    private final long[] counts = new long[BOUNDS_MICROS.length];
+    private long count;
+    private long sumMicros;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+
+    public synchronized void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[bucketOf(value)]++;
+        count++;
+        sumMicros += value;
+        minMicros = Math.min(minMicros, value);
+        maxMicros = Math.max(maxMicros, value);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMinMicros() {
+        return count == 0 ? 0 : minMicros;
+    }
+
+    public synchronized long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public synchronized long getMeanMicros() {
+        return count == 0 ? 0 : sumMicros / count;
+    }
+
+    // Upper bound of the bucket holding the p-th percentile (0..100), capped at the largest sample
+    public synchronized long getPercentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(minMicros, Math.min(BOUNDS_MICROS[i], maxMicros));
+            }
+        }
+        return maxMicros;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sumMicros = 0;
+        minMicros = Long.MAX_VALUE;
+        maxMicros = 0;
+    }
+
+    private static int bucketOf(long micros) {
+        int low = 0;
+        int high = BOUNDS_MICROS.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BOUNDS_MICROS[mid] >= micros) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static long[] buildBounds() {
+        int size = 1;
+        for (double bound = FIRST_BOUND_MICROS; bound < LAST_BOUND_MICROS; bound *= GROWTH) {
+            size++;
+        }
+        long[] bounds = new long[size + 1];
+        double bound = FIRST_BOUND_MICROS;
+        for (int i = 0; i < size; i++) {
+            bounds[i] = (long) Math.ceil(bound);
+            bound *= GROWTH;
+        }
+        // Overflow bucket for anything slower than two minutes
+        bounds[size] = Long.MAX_VALUE;
+        return bounds;
+    }
+}
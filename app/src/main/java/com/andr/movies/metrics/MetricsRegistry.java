@@ -0,0 +1,114 @@
+package com.andr.movies.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Named latency histograms for the app, plain Java so it runs in JVM tests
+ * with a fake {@link Clock}. Thread-safe; {@link #getInstance()} is the
+ * process-wide registry the app records into.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(Clock.SYSTEM);
+
+    private final Clock clock;
+    private final ConcurrentSkipListMap<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    public MetricsRegistry(Clock clock) {
+        this.clock = clock;
+    }
+
+    public static MetricsRegistry getInstance() {
+        return DEFAULT;
+    }
+
+    public long now() {
+        return clock.nanoTime();
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    // Records the time elapsed since startNanos, a value previously read from now()
+    public void recordSince(String name, long startNanos) {
+        histogram(name).record((clock.nanoTime() - startNanos) / 1000);
+    }
+
+    public Timer startTimer(String name) {
+        return new Timer(name, clock.nanoTime());
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // One line per histogram, sorted by name; times in milliseconds
+    public void dump(Appendable out) throws IOException {
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format(Locale.US,
+                    "%s count=%d min=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms mean=%.1fms%n",
+                    entry.getKey(), histogram.getCount(),
+                    millis(histogram.getMinMicros()),
+                    millis(histogram.getPercentileMicros(50)),
+                    millis(histogram.getPercentileMicros(90)),
+                    millis(histogram.getPercentileMicros(99)),
+                    millis(histogram.getMaxMicros()),
+                    millis(histogram.getMeanMicros())));
+        }
+    }
+
+    public void dumpToFile(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (Writer writer = new FileWriter(file)) {
+            dump(writer);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * A running measurement; only the first stop() is recorded.
+     */
+    public final class Timer {
+        private final String name;
+        private final long startNanos;
+        private boolean stopped;
+
+        private Timer(String name, long startNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+
+        public synchronized void stop() {
+            if (!stopped) {
+                stopped = true;
+                recordSince(name, startNanos);
+            }
+        }
+    }
+}
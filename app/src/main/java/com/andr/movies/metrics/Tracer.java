@@ -0,0 +1,99 @@
+package com.andr.movies.metrics;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace sections that show up in systrace/Perfetto and are also timed into
+ * the {@link MetricsRegistry}. Use {@link #begin} for work that starts and
+ * ends on one thread, {@link #beginAsync} for phases that end in a callback.
+ */
+public final class Tracer {
+    private static final String TAG = "Metrics";
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private Tracer() {
+    }
+
+    public static Section begin(String name) {
+        Trace.beginSection(name);
+        return new Section(MetricsRegistry.getInstance().startTimer(name));
+    }
+
+    public static AsyncSection beginAsync(String name) {
+        int cookie = nextCookie.incrementAndGet();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(name, cookie);
+        }
+        return new AsyncSection(name, cookie, MetricsRegistry.getInstance().startTimer(name));
+    }
+
+    public static void dumpToLogcat() {
+        StringWriter out = new StringWriter();
+        try {
+            MetricsRegistry.getInstance().dump(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not dump metrics", e);
+            return;
+        }
+        for (String line : out.toString().split("\n")) {
+            if (!line.isEmpty()) {
+                Log.i(TAG, line);
+            }
+        }
+    }
+
+    public static final class Section {
+        private final MetricsRegistry.Timer timer;
+
+        private Section(MetricsRegistry.Timer timer) {
+            this.timer = timer;
+        }
+
+        // Must run on the thread that began the section
+        public void end() {
+            timer.stop();
+            Trace.endSection();
+        }
+    }
+
+    public static final class AsyncSection {
+        private final String name;
+        private final int cookie;
+        private final MetricsRegistry.Timer timer;
+        private boolean closed;
+
+        private AsyncSection(String name, int cookie, MetricsRegistry.Timer timer) {
+            this.name = name;
+            this.cookie = cookie;
+            this.timer = timer;
+        }
+
+        public void end() {
+            if (close()) {
+                timer.stop();
+            }
+        }
+
+        // Closes the trace slice without recording, for phases that failed
+        public void discard() {
+            close();
+        }
+
+        private synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(name, cookie);
+            }
+            return true;
+        }
+    }
+}
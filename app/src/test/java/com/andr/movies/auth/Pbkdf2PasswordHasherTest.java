@@ -0,0 +1,53 @@
+package com.andr.movies.auth;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the PBKDF2 engine against published test vectors, and the rehash
+ * and legacy paths around it. Hashing throughput per cost is measured in
+ * benchmark/ (PasswordHashBenchmark).
+ */
+public class Pbkdf2PasswordHasherTest {
+
+    @Test
+    public void derive_matchesPublishedVectors() {
+        byte[] salt = "salt".getBytes();
+        assertEquals("120fb6cffcf8b32c43e7225256c4f837a86548c92ccc35480805987cb70be17b",
+                derive("password", salt, 1));
+        assertEquals("ae4d0c95af6b46d32d0adff928f06dd02a303f8ef3c251dfd6e2d85a95474c43",
+                derive("password", salt, 2));
+        assertEquals("c5e478d59288c841aa530db6845c4c8d962893a001ce4e11a4963873aa98134a",
+                derive("password", salt, 4096));
+    }
+
+    @Test
+    public void hash_verifiesOnlyTheSamePassword() {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+        String stored = hasher.hash("secret1");
+
+        assertTrue(hasher.verify("secret1", stored));
+        assertFalse(hasher.verify("secret2", stored));
+        assertFalse(hasher.needsRehash(stored));
+        assertTrue(new Pbkdf2PasswordHasher(2_000).needsRehash(stored));
+    }
+
+    @Test
+    public void legacyHash_verifiesAndNeedsRehash() {
+        LegacySha256PasswordHasher legacy = new LegacySha256PasswordHasher();
+        String stored = "5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8";
+
+        assertTrue(legacy.verify("password", stored));
+        assertFalse(legacy.verify("Password", stored));
+        assertTrue(legacy.needsRehash(stored));
+    }
+
+    private static String derive(String password, byte[] salt, int iterations) {
+        byte[] out = new byte[32];
+        Pbkdf2PasswordHasher.derive(password, salt, iterations, out);
+        return Hex.encode(out);
+    }
+}
@@ -0,0 +1,11 @@
+package com.andr.movies.benchmark;
+
+/**
+ * JUnit category for timing runs that need the Android classes and so cannot
+ * live in :benchmark. They are left out of the unit test tasks and only run
+ * with -Pbenchmarks:
+ *   ./gradlew :app:testDebugUnitTest -Pbenchmarks
+ * Each one writes its numbers under app/build/results/benchmarks.
+ */
+public interface RobolectricBenchmark {
+}
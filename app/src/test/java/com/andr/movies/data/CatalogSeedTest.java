@@ -0,0 +1,153 @@
+package com.andr.movies.data;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.AssetManager;
+import android.database.Cursor;
+import android.util.JsonReader;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+import com.andr.movies.db.CatalogStore;
+import com.andr.movies.db.DatabaseHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Streams Firebase-export JSON into the catalog cache: both node shapes,
+ * skipped nodes and children, positions, and all-or-nothing imports.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CatalogSeedTest {
+    private static final List<String> FILM_NODES = Arrays.asList("Items", "Upcomming");
+
+    private static final String SEED = "{"
+            + "\"Banners\": [{\"name\": \"Dune\", \"image\": \"dune.jpg\"}, {\"name\": \"Heat\"}],"
+            + "\"Items\": [null, {\"Title\": \"Alien\", \"Imdb\": 8, \"Genre\": [\"Horror\"]},"
+            + " {\"Title\": \"Heat\", \"Casts\": [{\"Actor\": \"Al Pacino\"}]}],"
+            + "\"Trailers\": {\"a\": {\"Title\": \"Not a feed node\"}},"
+            + "\"Upcomming\": {\"-Nb\": {\"Title\": \"Tenet\", \"Year\": 2020}, \"-Nc\": null,"
+            + " \"-Nd\": {\"Title\": \"Ronin\", \"Time\": \"2h 2m\"}}"
+            + "}";
+
+    private Context context;
+    private CatalogStore catalogStore;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        catalogStore = new CatalogStore(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.resetInstance();
+    }
+
+    @Test
+    public void read_importsArrayAndObjectNodesInOrder() throws IOException {
+        assertTrue(importJson(SEED));
+
+        List<Film> items = catalogStore.getFilms("Items");
+        assertEquals(2, items.size());
+        // Array nodes keep their indexes as keys, holes included
+        assertEquals("1", items.get(0).getKey());
+        assertEquals("Alien", items.get(0).getTitle());
+        assertEquals(8, items.get(0).getImdb());
+        assertEquals(Collections.singletonList("Horror"), items.get(0).getGenre());
+        assertEquals("2", items.get(1).getKey());
+        assertEquals("Al Pacino", items.get(1).getCasts().get(0).getActor());
+
+        List<Film> upcoming = catalogStore.getFilms("Upcomming");
+        assertEquals(2, upcoming.size());
+        assertEquals("-Nb", upcoming.get(0).getKey());
+        assertEquals(2020, upcoming.get(0).getYear());
+        assertEquals("-Nd", upcoming.get(1).getKey());
+        assertEquals("2h 2m", upcoming.get(1).getTime());
+
+        assertTrue(catalogStore.getFilms("Trailers").isEmpty());
+        assertEquals(Arrays.asList(0, 1), positions("Items"));
+        assertEquals(Arrays.asList(0, 1), positions("Upcomming"));
+
+        List<SliderItems> banners = catalogStore.getBanners();
+        assertEquals(2, banners.size());
+        assertEquals("Dune", banners.get(0).getName());
+        assertEquals("dune.jpg", banners.get(0).getImage());
+        assertEquals("Heat", banners.get(1).getName());
+        assertNull(banners.get(1).getImage());
+    }
+
+    @Test
+    public void malformedFile_rollsBackEverything() {
+        String truncated = "{\"Banners\": [{\"name\": \"Dune\"}], \"Items\": [{\"Title\": \"Alien\"}, {\"Title\": ";
+        try {
+            importJson(truncated);
+            fail("Expected the truncated file to fail");
+        } catch (IOException expected) {
+            // JsonReader reports the early end of input
+        }
+
+        assertTrue(catalogStore.isEmpty());
+        assertTrue(catalogStore.getFilms("Items").isEmpty());
+        assertTrue(catalogStore.getBanners().isEmpty());
+    }
+
+    @Test
+    public void filledCache_isNotImportedAgain() throws IOException {
+        assertTrue(importJson(SEED));
+
+        assertFalse(importJson("{\"Items\": [{\"Title\": \"Dune\"}]}"));
+        assertEquals(2, catalogStore.getFilms("Items").size());
+    }
+
+    @Test
+    public void filledCache_skipsOpeningTheAsset() throws IOException {
+        assertTrue(importJson(SEED));
+        Context noAssets = new ContextWrapper(context) {
+            @Override
+            public AssetManager getAssets() {
+                throw new AssertionError("The seed asset was opened with a filled cache");
+            }
+        };
+
+        CatalogSeed.importIfEmpty(noAssets, catalogStore, "Banners", "Items", "Upcomming");
+    }
+
+    private boolean importJson(String json) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        return catalogStore.importIfEmpty(writer -> CatalogSeed.read(reader, writer, "Banners", FILM_NODES));
+    }
+
+    private List<Integer> positions(String node) {
+        Cursor cursor = DatabaseHelper.getInstance(context).getReadableDatabase().rawQuery(
+                "SELECT position FROM catalog_films WHERE node=? ORDER BY position", new String[]{node});
+        List<Integer> positions = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                positions.add(cursor.getInt(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return positions;
+    }
+}
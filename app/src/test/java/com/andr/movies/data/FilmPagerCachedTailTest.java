@@ -0,0 +1,72 @@
+package com.andr.movies.data;
+
+import com.andr.movies.Domains.Film;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FilmPager.withCachedTail: a fresh first page must not shrink the cached node
+ * to one page, while films Firebase dropped inside the loaded range go away.
+ */
+public class FilmPagerCachedTailTest {
+
+    @Test
+    public void firstPage_keepsCachedFilmsAfterItsLastKey() {
+        List<Film> cached = films("0", "1", "2", "3", "4", "5");
+        Set<String> removed = new HashSet<>();
+
+        List<Film> merged = FilmPager.withCachedTail(films("0", "1", "2"), cached, "2", removed);
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), keys(merged));
+        assertEquals(Collections.emptySet(), removed);
+    }
+
+    @Test
+    public void cachedFilmsMissingInsideTheLoadedRange_areRemoved() {
+        List<Film> cached = films("1", "2", "3", "10", "11");
+        Set<String> removed = new HashSet<>(Collections.singleton("7"));
+
+        // "10" sorts after "3" as an integer key, so it is past the loaded range
+        List<Film> merged = FilmPager.withCachedTail(films("1", "3", "4"), cached, "4", removed);
+
+        assertEquals(Arrays.asList("1", "3", "4", "10", "11"), keys(merged));
+        assertEquals(new HashSet<>(Arrays.asList("2", "7")), removed);
+    }
+
+    @Test
+    public void endReached_dropsEveryCachedFilmNotFresh() {
+        Set<String> removed = new HashSet<>();
+
+        List<Film> merged = FilmPager.withCachedTail(films("-Na", "-Nc"), films("-Na", "-Nb", "-Nd"), null, removed);
+
+        assertEquals(Arrays.asList("-Na", "-Nc"), keys(merged));
+        assertEquals(new HashSet<>(Arrays.asList("-Nb", "-Nd")), removed);
+    }
+
+    private static List<Film> films(String... keys) {
+        List<Film> films = new ArrayList<>();
+        for (String key : keys) {
+            Film film = new Film();
+            film.setKey(key);
+            films.add(film);
+        }
+        return films;
+    }
+
+    private static List<String> keys(List<Film> films) {
+        List<String> keys = new ArrayList<>();
+        for (Film film : films) {
+            keys.add(film.getKey());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,63 @@
+package com.andr.movies.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FilmPager.compareKeys against Firebase's orderByKey rules. Paging with
+ * startAfter/endAt skips or repeats films when the two orders disagree.
+ */
+public class FilmPagerKeyOrderTest {
+
+    @Test
+    public void integerKeys_sortNumerically() {
+        assertOrdered("-5", "0", "2", "10", "2147483647");
+    }
+
+    @Test
+    public void equalIntegers_shorterKeyFirst() {
+        assertOrdered("1", "01", "001");
+        assertEquals(0, Integer.signum(FilmPager.compareKeys("7", "7")));
+    }
+
+    @Test
+    public void integerKeys_comeBeforeStringKeys() {
+        assertOrdered("99", "-Nabc", "a");
+        assertOrdered("2147483647", "2147483648");
+    }
+
+    @Test
+    public void nonIntegerKeys_sortAsStrings() {
+        // Out of 32-bit range, leading '+', a lone '-' and letters are all plain strings
+        assertOrdered("+1", "-", "-NaAbc", "-Nb", "12a", "2147483648", "99999999999", "Z", "a");
+    }
+
+    @Test
+    public void nonAsciiDigits_areStringKeys() {
+        // U+0661 ARABIC-INDIC DIGIT ONE parses with Integer.parseInt, but not as a Firebase int key
+        assertOrdered("5", "\u0661");
+    }
+
+    @Test
+    public void comparison_isAntisymmetric() {
+        List<String> keys = Arrays.asList("-1", "0", "01", "1", "10", "+1", "a", "2147483648");
+        for (String a : keys) {
+            for (String b : keys) {
+                assertEquals(a + " vs " + b, -Integer.signum(FilmPager.compareKeys(b, a)),
+                        Integer.signum(FilmPager.compareKeys(a, b)));
+            }
+        }
+    }
+
+    private static void assertOrdered(String... keys) {
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(keys[i - 1] + " should sort before " + keys[i],
+                    FilmPager.compareKeys(keys[i - 1], keys[i]) < 0);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.andr.movies.data;
+
+import com.andr.movies.db.DatabaseHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prefix lookup, frecency ranking and the size bound of SuggestionIndex, with
+ * every time given relative to a fixed NOW so scores are exact.
+ */
+public class SuggestionIndexTest {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long WEEK = 7 * 24 * 60 * 60 * 1000L;
+
+    private SuggestionIndex index;
+
+    @Before
+    public void setUp() {
+        index = new SuggestionIndex(DatabaseHelper.MAX_SEARCH_HISTORY_PER_USER);
+    }
+
+    @Test
+    public void suggest_returnsOnlyQueriesInThePrefixRange() {
+        for (String query : Arrays.asList("star wars", "star trek", "stardust", "the star", "stab", "su")) {
+            index.record(query, NOW);
+        }
+
+        List<String> suggestions = index.suggest("  STAR ", 10, NOW);
+
+        assertEquals(3, suggestions.size());
+        assertTrue(suggestions.containsAll(Arrays.asList("star wars", "star trek", "stardust")));
+        assertEquals(Collections.singletonList("su"), index.suggest("su", 10, NOW));
+        assertTrue(index.suggest("x", 10, NOW).isEmpty());
+    }
+
+    @Test
+    public void suggest_keepsTheTopKByHitsBestFirst() {
+        index.add("memento", 1, NOW);
+        index.add("matrix", 5, NOW);
+        index.add("mad max", 2, NOW);
+        index.add("moon", 3, NOW);
+
+        assertEquals(Arrays.asList("matrix", "moon"), index.suggest("m", 2, NOW));
+        assertEquals(Arrays.asList("matrix", "moon", "mad max", "memento"), index.suggest("", 10, NOW));
+    }
+
+    @Test
+    public void hits_halveEveryWeek() {
+        index.add("alien", 8, NOW - 2 * WEEK);
+        index.add("aliens", 3, NOW);
+        // 8 hits two half-lives ago score 2, below 3 fresh hits
+        assertEquals(Arrays.asList("aliens", "alien"), index.suggest("alien", 2, NOW));
+
+        SuggestionIndex lessStale = new SuggestionIndex(DatabaseHelper.MAX_SEARCH_HISTORY_PER_USER);
+        lessStale.add("alien", 8, NOW - WEEK);
+        lessStale.add("aliens", 3, NOW);
+        // One half-life ago they score 4
+        assertEquals(Arrays.asList("alien", "aliens"), lessStale.suggest("alien", 2, NOW));
+    }
+
+    @Test
+    public void repeatedQuery_mergesHitsAndKeepsNewestSpelling() {
+        index.record("The  Matrix", NOW);
+        index.record("the matrix ", NOW - WEEK);
+        index.add("mad max", 1, NOW);
+
+        assertEquals(1, index.suggest("the", 10, NOW).size());
+        assertEquals("The  Matrix", index.suggest("the", 10, NOW).get(0));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void size_isCappedByDroppingTheLeastRecentlyUsed() {
+        int capacity = DatabaseHelper.MAX_SEARCH_HISTORY_PER_USER;
+        for (int i = 0; i < capacity; i++) {
+            index.record("query " + i, NOW + i);
+        }
+        // Using query 0 again makes query 1 the least recent
+        index.record("query 0", NOW + capacity);
+        index.record("query new", NOW + capacity + 1);
+
+        assertEquals(capacity, index.size());
+        assertFalse(index.suggest("query 1", capacity, NOW + capacity + 1).contains("query 1"));
+        assertTrue(index.suggest("query 0", 1, NOW + capacity + 1).contains("query 0"));
+        assertTrue(index.suggest("query new", 1, NOW + capacity + 1).contains("query new"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.andr.movies.db;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.andr.movies.Domains.Film;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Keeps the full-text index pointing at the right films while nodes are
+ * replaced or updated and the database is vacuumed.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CatalogStoreTest {
+    private CatalogStore catalogStore;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        catalogStore = new CatalogStore(context);
+        db = DatabaseHelper.getInstance(context).getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.resetInstance();
+    }
+
+    @Test
+    public void sameKeyUnderTwoNodes_returnsBothFilms() {
+        // Array nodes key their films by index, so "7" names a different film in each node
+        catalogStore.replaceFilms("Items", Collections.singletonList(film("7", "Heat")));
+        catalogStore.replaceFilms("Upcomming", Collections.singletonList(film("7", "Heathers")));
+
+        List<Film> found = catalogStore.searchFilms("hea", 10, null);
+        assertEquals(2, found.size());
+        assertEquals(new HashSet<>(Arrays.asList("Items/Heat", "Upcomming/Heathers")),
+                new HashSet<>(Arrays.asList(found.get(0).getNode() + "/" + found.get(0).getTitle(),
+                        found.get(1).getNode() + "/" + found.get(1).getTitle())));
+    }
+
+    @Test
+    public void search_handsOverFirstBatchThenWholeList() {
+        List<Film> films = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            films.add(film(String.valueOf(i), "Heat " + i));
+        }
+        catalogStore.replaceFilms("Items", films);
+
+        List<Integer> sizes = new ArrayList<>();
+        List<Boolean> completes = new ArrayList<>();
+        catalogStore.searchFilms("heat", 50, 12, null, (found, complete) -> {
+            sizes.add(found.size());
+            completes.add(complete);
+        });
+
+        assertEquals(Arrays.asList(12, 15), sizes);
+        assertEquals(Arrays.asList(false, true), completes);
+    }
+
+    @Test
+    public void replacingNode_dropsOldIndexRows() {
+        catalogStore.replaceFilms("Items", Arrays.asList(film("1", "Heat"), film("2", "Alien")));
+        catalogStore.replaceFilms("Items", Collections.singletonList(film("1", "Ronin")));
+
+        assertEquals(0, catalogStore.searchFilms("heat", 10, null).size());
+        assertEquals(0, catalogStore.searchFilms("alien", 10, null).size());
+        assertEquals("Ronin", catalogStore.searchFilms("ron", 10, null).get(0).getTitle());
+        assertIndexMatchesFilms();
+    }
+
+    @Test
+    public void updateFilms_writesOnlyDeltasAndKeepsIds() {
+        catalogStore.replaceFilms("Items", Arrays.asList(film("1", "Heat"), film("2", "Alien"), film("3", "Dune")));
+        long duneId = filmId("Items", "3");
+
+        List<Film> films = Arrays.asList(film("1", "Heat"), film("15", "Tenet"), film("3", "Dune Part Two"));
+        catalogStore.updateFilms("Items", films, new HashSet<>(Arrays.asList("15", "3")),
+                Collections.singleton("2"));
+
+        List<Film> cached = catalogStore.getFilms("Items");
+        assertEquals(3, cached.size());
+        assertEquals("Heat", cached.get(0).getTitle());
+        assertEquals("Tenet", cached.get(1).getTitle());
+        assertEquals("Dune Part Two", cached.get(2).getTitle());
+        assertEquals(duneId, filmId("Items", "3"));
+        assertEquals(0, catalogStore.searchFilms("alien", 10, null).size());
+        assertEquals(1, catalogStore.searchFilms("part", 10, null).size());
+        assertIndexMatchesFilms();
+    }
+
+    @Test
+    public void vacuum_keepsSearchResultsOnTheirFilms() {
+        catalogStore.replaceFilms("Upcomming", Arrays.asList(film("1", "Dune"), film("2", "Tenet")));
+        catalogStore.replaceFilms("Items", Arrays.asList(film("1", "Heat"), film("2", "Alien")));
+        catalogStore.replaceFilms("Upcomming", new ArrayList<>());
+
+        db.execSQL("VACUUM");
+
+        List<Film> found = catalogStore.searchFilms("alien", 10, null);
+        assertEquals(1, found.size());
+        assertEquals("Alien", found.get(0).getTitle());
+        assertIndexMatchesFilms();
+    }
+
+    private void assertIndexMatchesFilms() {
+        assertEquals(DatabaseUtils.queryNumEntries(db, CatalogStore.TABLE_FILMS),
+                DatabaseUtils.queryNumEntries(db, CatalogStore.TABLE_SEARCH));
+        assertEquals(0, DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM " + CatalogStore.TABLE_SEARCH
+                + " WHERE docid NOT IN (SELECT " + CatalogStore.COLUMN_ID + " FROM "
+                + CatalogStore.TABLE_FILMS + ")", null));
+    }
+
+    private long filmId(String node, String key) {
+        return DatabaseUtils.longForQuery(db, "SELECT " + CatalogStore.COLUMN_ID + " FROM " + CatalogStore.TABLE_FILMS
+                + " WHERE " + CatalogStore.COLUMN_NODE + "=? AND " + CatalogStore.COLUMN_FILM_KEY + "=?",
+                new String[]{node, key});
+    }
+
+    private static Film film(String key, String title) {
+        Film film = new Film();
+        film.setKey(key);
+        film.setTitle(title);
+        return film;
+    }
+}
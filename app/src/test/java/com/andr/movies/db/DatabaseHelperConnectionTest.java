@@ -0,0 +1,72 @@
+package com.andr.movies.db;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * One shared helper per process whose connection stays open between calls,
+ * with write-ahead logging so reads do not wait for writes.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseHelperConnectionTest {
+    private static final String EMAIL = "user@example.com";
+
+    private Context context;
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        databaseHelper = DatabaseHelper.getInstance(context);
+        // Password hashing refuses the main thread, which is where Robolectric runs tests
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(worker.submit(() -> databaseHelper.registerUser("Some User", EMAIL, "secret1")).get());
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.resetInstance();
+    }
+
+    @Test
+    public void getInstance_returnsTheSameHelper() {
+        assertSame(databaseHelper, DatabaseHelper.getInstance(context));
+        assertSame(databaseHelper, DatabaseHelper.getInstance(context.getApplicationContext()));
+    }
+
+    @Test
+    public void queries_keepTheConnectionOpen() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        int userId = databaseHelper.getUserId(EMAIL);
+        assertEquals("Some User", databaseHelper.getUserFullName(EMAIL));
+        assertTrue(databaseHelper.isUserExists(EMAIL));
+
+        assertTrue(userId != -1);
+        assertTrue(db.isOpen());
+        assertSame(db, databaseHelper.getReadableDatabase());
+    }
+
+    @Test
+    public void writeAheadLogging_isEnabled() {
+        assertTrue(databaseHelper.getWritableDatabase().isWriteAheadLoggingEnabled());
+    }
+}
@@ -0,0 +1,101 @@
+package com.andr.movies.db;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.andr.movies.benchmark.RobolectricBenchmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Throughput of the small user queries with the shared, long-lived connection,
+ * against the old pattern of closing the database after every call. Reports
+ * ops/s to build/results/benchmarks/database-helper-throughput.txt instead of
+ * asserting on wall-clock time.
+ */
+@Category(RobolectricBenchmark.class)
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseHelperThroughputTest {
+    private static final int WARMUP_OPS = 200;
+    private static final int MEASURED_OPS = 2000;
+    private static final String EMAIL = "bench@example.com";
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        databaseHelper = DatabaseHelper.getInstance(context);
+        // Password hashing refuses the main thread, which is where Robolectric runs tests
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(worker.submit(() -> databaseHelper.registerUser("Bench User", EMAIL, "secret1")).get());
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.resetInstance();
+    }
+
+    @Test
+    public void getUserId_openClosePerCallAgainstLongLived() throws IOException {
+        double reopenOpsPerSecond = measure(true);
+        double longLivedOpsPerSecond = measure(false);
+
+        String dir = System.getProperty("benchmark.outputDir");
+        assertNotNull("Run through Gradle with -Pbenchmarks", dir);
+        File results = new File(dir, "database-helper-throughput.txt");
+        assertTrue(results.getParentFile().isDirectory() || results.getParentFile().mkdirs());
+        try (Writer writer = new FileWriter(results)) {
+            writer.write(String.format(Locale.ROOT,
+                    "DatabaseHelper.getUserId, %d calls%n"
+                            + "open/close per call: %.0f ops/s%n"
+                            + "long-lived connection: %.0f ops/s%n"
+                            + "speedup: %.1fx%n",
+                    MEASURED_OPS, reopenOpsPerSecond, longLivedOpsPerSecond,
+                    longLivedOpsPerSecond / reopenOpsPerSecond));
+        }
+    }
+
+    private double measure(boolean closeAfterEachCall) {
+        int expectedId = databaseHelper.getUserId(EMAIL);
+        for (int i = 0; i < WARMUP_OPS; i++) {
+            runOnce(closeAfterEachCall, expectedId);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_OPS; i++) {
+            runOnce(closeAfterEachCall, expectedId);
+        }
+        long elapsed = System.nanoTime() - start;
+        return MEASURED_OPS / (elapsed / 1_000_000_000.0);
+    }
+
+    private void runOnce(boolean closeAfterEachCall, int expectedId) {
+        assertEquals(expectedId, databaseHelper.getUserId(EMAIL));
+        if (closeAfterEachCall) {
+            // What every DatabaseHelper method used to do before returning
+            databaseHelper.close();
+        }
+    }
+}
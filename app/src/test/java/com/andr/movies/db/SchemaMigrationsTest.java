@@ -0,0 +1,183 @@
+package com.andr.movies.db;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Upgrades a version 1 database through every step and checks that existing
+ * rows survive and the history query reads from its covering index.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SchemaMigrationsTest {
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = SQLiteDatabase.create(null);
+        SchemaMigrations.createVersion1Tables(db);
+        db.execSQL("INSERT INTO users(full_name, email, password) VALUES('Old User', 'old@example.com', 'hash')");
+        db.execSQL("INSERT INTO search_history(user_id, search_query) VALUES(1, 'matrix')");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void upgradeFromVersion1_keepsUsersAndHistory() {
+        SchemaMigrations.migrate(db, 1, SchemaMigrations.LATEST_VERSION);
+
+        assertEquals(1, count("users"));
+        assertEquals(1, count("search_history"));
+        assertEquals(0, count("catalog_films"));
+        assertEquals(0, count("frame_stats"));
+    }
+
+    @Test
+    public void upgradeToVersion5_foldsRepeatedQueriesIntoHitCounts() {
+        db.execSQL("INSERT INTO search_history(user_id, search_query, search_time)"
+                + " VALUES(1, '  The  Matrix ', '2024-01-01 10:00:00')");
+        db.execSQL("INSERT INTO search_history(user_id, search_query, search_time)"
+                + " VALUES(1, 'the matrix', '2024-01-02 10:00:00')");
+        db.execSQL("INSERT INTO search_history(user_id, search_query) VALUES(2, 'the matrix')");
+
+        SchemaMigrations.migrate(db, 1, SchemaMigrations.LATEST_VERSION);
+
+        assertEquals(3, count("search_history"));
+        Cursor cursor = db.rawQuery("SELECT search_query, hit_count, search_time FROM search_history"
+                + " WHERE user_id=1 AND normalized_query='the matrix'", null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("the matrix", cursor.getString(0));
+            assertEquals(2, cursor.getInt(1));
+            assertEquals("2024-01-02 10:00:00", cursor.getString(2));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void upgradeToVersion3_indexesCachedFilms() {
+        SchemaMigrations.migrate(db, 1, 2);
+        db.execSQL("INSERT INTO catalog_films(node, film_key, position, title, genres, casts)"
+                + " VALUES('Items', '0', 0, 'Heat', '[\"Crime\",\"Drama\"]',"
+                + " '[{\"Actor\":\"Al Pacino\",\"PicUrl\":\"https://example.com/a.jpg\"}]')");
+
+        SchemaMigrations.migrate(db, 2, SchemaMigrations.LATEST_VERSION);
+
+        assertEquals(1, matches("actors:pacino"));
+        assertEquals(1, matches("genres:drama"));
+        assertEquals(0, matches("actors:picurl"));
+    }
+
+    @Test
+    public void upgradeToVersion7_rekeysSearchIndexOnFilmIds() {
+        SchemaMigrations.migrate(db, 1, 6);
+        db.execSQL("INSERT INTO catalog_films(node, film_key, position, title) VALUES('Items', 'a', 0, 'Heat')");
+        db.execSQL("INSERT INTO catalog_films(node, film_key, position, title) VALUES('Items', 'b', 1, 'Alien')");
+        db.execSQL("DELETE FROM catalog_films WHERE film_key='a'");
+        db.execSQL("INSERT INTO catalog_search(docid, title) SELECT rowid, title FROM catalog_films");
+
+        SchemaMigrations.migrate(db, 6, 7);
+
+        Cursor cursor = db.rawQuery("SELECT f.title FROM catalog_search JOIN catalog_films f"
+                + " ON f.id = catalog_search.docid WHERE catalog_search MATCH 'alien'", null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Alien", cursor.getString(0));
+            assertEquals(1, cursor.getCount());
+        } finally {
+            cursor.close();
+        }
+        assertEquals(1, count("catalog_search"));
+    }
+
+    @Test
+    public void upgradeInSeveralHops_matchesSingleUpgrade() {
+        SchemaMigrations.migrate(db, 1, 2);
+        SchemaMigrations.migrate(db, 2, SchemaMigrations.LATEST_VERSION);
+
+        SQLiteDatabase direct = SQLiteDatabase.create(null);
+        try {
+            SchemaMigrations.createVersion1Tables(direct);
+            SchemaMigrations.migrate(direct, 1, SchemaMigrations.LATEST_VERSION);
+            assertEquals(schema(direct), schema(db));
+        } finally {
+            direct.close();
+        }
+    }
+
+    @Test
+    public void recentSearches_useCoveringIndex() {
+        SchemaMigrations.migrate(db, 1, SchemaMigrations.LATEST_VERSION);
+
+        String plan = queryPlan("SELECT search_query FROM search_history WHERE user_id=1"
+                + " ORDER BY search_time DESC LIMIT 10");
+        assertTrue(plan, plan.contains("COVERING INDEX idx_search_history_user_time"));
+        assertTrue(plan, !plan.contains("TEMP B-TREE"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void upgradeBeyondLatest_fails() {
+        SchemaMigrations.migrate(db, 1, SchemaMigrations.LATEST_VERSION + 1);
+    }
+
+    private int count(String table) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + table, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private int matches(String query) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM catalog_search WHERE catalog_search MATCH ?",
+                new String[]{query});
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static String schema(SQLiteDatabase database) {
+        Cursor cursor = database.rawQuery("SELECT type, name, sql FROM sqlite_master ORDER BY name", null);
+        StringBuilder schema = new StringBuilder();
+        try {
+            while (cursor.moveToNext()) {
+                schema.append(cursor.getString(0)).append(' ').append(cursor.getString(1))
+                        .append(' ').append(cursor.getString(2)).append('\n');
+            }
+        } finally {
+            cursor.close();
+        }
+        return schema.toString();
+    }
+
+    private String queryPlan(String sql) {
+        Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null);
+        StringBuilder plan = new StringBuilder();
+        try {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        } finally {
+            cursor.close();
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.andr.movies.image;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Poster requests decode at the size of the view they fill: the card at the
+ * card size, the detail header at the full header size. Both skip the
+ * scale-type crop that into(ImageView) would add to the cache key.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ImageRequestsTest {
+    private static final String URL = "https://example.com/poster.jpg";
+
+    @Test
+    public void poster_decodesAtTheCardSize() {
+        Context context = ApplicationProvider.getApplicationContext();
+        RequestBuilder<Drawable> card = ImageRequests.poster(Glide.with(context), context, URL);
+
+        assertEquals(ImageRequests.posterWidth(context), card.getOverrideWidth());
+        assertEquals(ImageRequests.posterHeight(context), card.getOverrideHeight());
+        assertFalse(card.isTransformationAllowed());
+    }
+
+    @Test
+    public void posterHeader_decodesAtTheHeaderSize() {
+        Context context = ApplicationProvider.getApplicationContext();
+        RequestManager glide = Glide.with(context);
+
+        RequestBuilder<Drawable> card = ImageRequests.poster(glide, context, URL);
+        RequestBuilder<Drawable> header = ImageRequests.posterHeader(glide, context, URL,
+                new FirstImageListener(() -> {
+                }));
+
+        assertEquals(ImageRequests.posterHeaderWidth(context), header.getOverrideWidth());
+        assertEquals(ImageRequests.posterHeaderHeight(context), header.getOverrideHeight());
+        assertFalse(header.isTransformationAllowed());
+        // Same decode options as the card, so only the size tells the two cache entries apart
+        assertEquals(card.getOptions(), header.getOptions());
+        assertEquals(card.getTransformations(), header.getTransformations());
+    }
+}
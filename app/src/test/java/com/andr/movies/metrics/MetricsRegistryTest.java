@@ -0,0 +1,119 @@
+package com.andr.movies.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Registry and histogram behaviour driven by a fake clock, so every latency
+ * is exact and the tests run on the plain JVM.
+ */
+public class MetricsRegistryTest {
+    private static final long MILLI = 1_000_000L;
+
+    private FakeClock clock;
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        registry = new MetricsRegistry(clock);
+    }
+
+    @Test
+    public void timer_recordsElapsedFakeTime() {
+        MetricsRegistry.Timer timer = registry.startTimer("home.fetch.Items");
+        clock.advance(120 * MILLI);
+        timer.stop();
+        clock.advance(500 * MILLI);
+        timer.stop();
+
+        LatencyHistogram histogram = registry.histogram("home.fetch.Items");
+        assertEquals(1, histogram.getCount());
+        assertEquals(120_000, histogram.getMinMicros());
+        assertEquals(120_000, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void recordSince_measuresFromAnEarlierReading() {
+        long start = registry.now();
+        clock.advance(40 * MILLI);
+
+        registry.recordSince("home.first_content.Banners", start);
+
+        assertEquals(40_000, registry.histogram("home.first_content.Banners").getMeanMicros());
+    }
+
+    @Test
+    public void percentiles_fallWithinOneBucketOfTheSamples() {
+        LatencyHistogram histogram = registry.histogram("home.decode.Upcomming");
+        for (int millis = 1; millis <= 100; millis++) {
+            long start = registry.now();
+            clock.advance(millis * MILLI);
+            registry.recordSince("home.decode.Upcomming", start);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000, histogram.getMinMicros());
+        assertEquals(100_000, histogram.getMaxMicros());
+        assertEquals(50_500, histogram.getMeanMicros());
+        assertWithinBucket(50_000, histogram.getPercentileMicros(50));
+        assertWithinBucket(90_000, histogram.getPercentileMicros(90));
+        assertWithinBucket(99_000, histogram.getPercentileMicros(99));
+        assertEquals(100_000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void dump_listsNonEmptyHistogramsByName() throws IOException {
+        registry.histogram("unused");
+        record("home.fetch.Upcomming", 30);
+        record("home.fetch.Banners", 10);
+
+        StringBuilder out = new StringBuilder();
+        registry.dump(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("home.fetch.Banners count=1 min=10.0ms"));
+        assertTrue(lines[1], lines[1].startsWith("home.fetch.Upcomming count=1 min=30.0ms"));
+    }
+
+    @Test
+    public void reset_clearsEveryHistogram() {
+        record("home.fetch.Items", 10);
+
+        registry.reset();
+
+        assertEquals(0, registry.histogram("home.fetch.Items").getCount());
+        assertEquals(0, registry.histogram("home.fetch.Items").getPercentileMicros(50));
+    }
+
+    private void record(String name, long millis) {
+        long start = registry.now();
+        clock.advance(millis * MILLI);
+        registry.recordSince(name, start);
+    }
+
+    // Buckets grow by 25%, so a percentile may overshoot the exact sample by up to that much
+    private static void assertWithinBucket(long expectedMicros, long actualMicros) {
+        assertTrue(actualMicros + " < " + expectedMicros, actualMicros >= expectedMicros);
+        assertTrue(actualMicros + " > 1.25 * " + expectedMicros, actualMicros <= expectedMicros * 1.25);
+    }
+
+    private static final class FakeClock implements Clock {
+        private long nanos = 1_000 * MILLI;
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        void advance(long deltaNanos) {
+            nanos += deltaNanos;
+        }
+    }
+}
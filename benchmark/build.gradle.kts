@@ -0,0 +1,38 @@
+// JMH benchmarks for the app's hot paths, run on a plain JVM:
+//   ./gradlew :benchmark:jmh
+// Results are written as JSON to benchmark/build/results/jmh/results.json.
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Only the app classes with no Android dependencies are compiled here
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf("../app/src/main/java"))
+            include(
+                "com/andr/movies/Domains/**",
+                "com/andr/movies/data/CatalogMapper.java",
+                "com/andr/movies/auth/Hex.java",
+                "com/andr/movies/auth/PasswordHasher.java",
+                "com/andr/movies/auth/Pbkdf2PasswordHasher.java",
+                "com/andr/movies/auth/LegacySha256PasswordHasher.java"
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
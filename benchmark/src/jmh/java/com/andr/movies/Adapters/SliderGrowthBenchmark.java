@@ -0,0 +1,65 @@
+package com.andr.movies.Adapters;
+
+import com.andr.movies.Domains.SliderItems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-scrolling the banner carousel through a number of pages. The old
+ * SlidersAdapter doubled its list with addAll(itself) whenever the second to
+ * last page was bound; the current one indexes a fixed list modulo its size.
+ * SlidersAdapter needs Android, so both access patterns are replayed here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SliderGrowthBenchmark {
+    private static final int BANNERS = 5;
+
+    @Param({"100", "1000", "10000"})
+    public int pages;
+
+    private List<SliderItems> banners;
+
+    @Setup
+    public void setUp() {
+        banners = new ArrayList<>(BANNERS);
+        for (int i = 0; i < BANNERS; i++) {
+            SliderItems item = new SliderItems();
+            item.setName("Banner " + i);
+            banners.add(item);
+        }
+    }
+
+    @Benchmark
+    public int doublingList(Blackhole blackhole) {
+        List<SliderItems> items = new ArrayList<>(banners);
+        for (int position = 0; position < pages; position++) {
+            blackhole.consume(items.get(position));
+            if (position == items.size() - 2) {
+                items.addAll(items);
+            }
+        }
+        return items.size();
+    }
+
+    @Benchmark
+    public int moduloIndex(Blackhole blackhole) {
+        for (int position = 0; position < pages; position++) {
+            blackhole.consume(banners.get(position % banners.size()));
+        }
+        return banners.size();
+    }
+}
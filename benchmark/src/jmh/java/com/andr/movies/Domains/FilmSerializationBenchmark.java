@@ -0,0 +1,72 @@
+package com.andr.movies.Domains;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java serialization of a Film with genres and casts, the cost the old
+ * Serializable Intent extra paid on every hand-off to DetailActivity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilmSerializationBenchmark {
+    private Film film;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        film = new Film();
+        film.setNode("Items");
+        film.setKey("3");
+        film.setTitle("The Matrix");
+        film.setDescription("A computer hacker learns about the true nature of reality.");
+        film.setPoster("https://example.com/posters/3.jpg");
+        film.setTime("2h 16min");
+        film.setTrailer("https://example.com/trailers/3");
+        film.setImdb(9);
+        film.setYear(1999);
+        ArrayList<String> genres = new ArrayList<>();
+        genres.add("Action");
+        genres.add("Sci-Fi");
+        film.setGenre(genres);
+        ArrayList<Cast> casts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Cast cast = new Cast();
+            cast.setActor("Actor " + i);
+            cast.setPicUrl("https://example.com/cast/3/" + i + ".jpg");
+            casts.add(cast);
+        }
+        film.setCasts(casts);
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(film);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
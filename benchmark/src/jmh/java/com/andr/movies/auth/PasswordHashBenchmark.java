@@ -0,0 +1,79 @@
+package com.andr.movies.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing: the PBKDF2 engine at several costs, the legacy SHA-256
+ * verify path, and the original hashPassword hex loop as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PasswordHashBenchmark {
+    private static final String PASSWORD = "secret-password-1";
+
+    // The unit tests' cost, then PasswordHashing.MIN_ITERATIONS upward
+    @Param({"1000", "10000", "50000", "100000", "200000", "300000"})
+    public int iterations;
+
+    private Pbkdf2PasswordHasher pbkdf2;
+    private String storedPbkdf2;
+    private final LegacySha256PasswordHasher legacy = new LegacySha256PasswordHasher();
+    private String storedLegacy;
+
+    @Setup
+    public void setUp() {
+        pbkdf2 = new Pbkdf2PasswordHasher(iterations);
+        storedPbkdf2 = pbkdf2.hash(PASSWORD);
+        storedLegacy = legacy.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String pbkdf2Hash() {
+        return pbkdf2.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean pbkdf2Verify() {
+        return pbkdf2.verify(PASSWORD, storedPbkdf2);
+    }
+
+    @Benchmark
+    public boolean legacySha256Verify() {
+        return legacy.verify(PASSWORD, storedLegacy);
+    }
+
+    // DatabaseHelper.hashPassword as it was: SHA-256 plus Integer.toHexString per byte
+    @Benchmark
+    public String originalHashPassword() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(PASSWORD.getBytes());
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public String tableHexSha256() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return Hex.encode(digest.digest(PASSWORD.getBytes(StandardCharsets.UTF_8)));
+    }
+}
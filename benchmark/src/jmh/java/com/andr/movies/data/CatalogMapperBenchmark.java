@@ -0,0 +1,114 @@
+package com.andr.movies.data;
+
+import com.andr.movies.Domains.Cast;
+import com.andr.movies.Domains.Film;
+import com.andr.movies.Domains.SliderItems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping raw snapshot value trees, shaped like the Firebase Items and
+ * Banners nodes, into domain objects, one whole node per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogMapperBenchmark {
+    private static final int CASTS_PER_FILM = 8;
+
+    @Param({"10", "100", "1000"})
+    public int films;
+
+    private List<Map<String, Object>> rawFilms;
+    private List<Map<String, Object>> rawBanners;
+    private List<Map<String, Object>> rawCasts;
+
+    @Setup
+    public void setUp() {
+        rawFilms = new ArrayList<>(films);
+        rawBanners = new ArrayList<>(films);
+        for (int i = 0; i < films; i++) {
+            rawFilms.add(rawFilm(i));
+            rawBanners.add(rawBanner(i));
+        }
+        rawCasts = rawCasts(0);
+    }
+
+    @Benchmark
+    public void toFilm(Blackhole blackhole) {
+        for (int i = 0; i < rawFilms.size(); i++) {
+            Film film = CatalogMapper.toFilm("Items", String.valueOf(i), rawFilms.get(i));
+            blackhole.consume(film);
+        }
+    }
+
+    @Benchmark
+    public void toSliderItems(Blackhole blackhole) {
+        for (Map<String, Object> raw : rawBanners) {
+            SliderItems item = CatalogMapper.toSliderItems(raw);
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void toCast(Blackhole blackhole) {
+        for (Map<String, Object> raw : rawCasts) {
+            Cast cast = CatalogMapper.toCast(raw);
+            blackhole.consume(cast);
+        }
+    }
+
+    private static Map<String, Object> rawFilm(int i) {
+        Map<String, Object> film = new HashMap<>();
+        film.put("Title", "Film " + i);
+        film.put("Description", "A description long enough to look like a real synopsis of film " + i + ".");
+        film.put("Poster", "https://example.com/posters/" + i + ".jpg");
+        film.put("Time", "2h 10min");
+        film.put("Trailer", "https://example.com/trailers/" + i);
+        film.put("Imdb", (long) (i % 10));
+        film.put("Year", 1990L + i % 35);
+        List<Object> genres = new ArrayList<>();
+        genres.add("Action");
+        genres.add("Drama");
+        genres.add("Sci-Fi");
+        film.put("Genre", genres);
+        film.put("Casts", rawCasts(i));
+        return film;
+    }
+
+    private static List<Map<String, Object>> rawCasts(int film) {
+        List<Map<String, Object>> casts = new ArrayList<>(CASTS_PER_FILM);
+        for (int i = 0; i < CASTS_PER_FILM; i++) {
+            Map<String, Object> cast = new HashMap<>();
+            cast.put("Actor", "Actor " + film + "-" + i);
+            cast.put("PicUrl", "https://example.com/cast/" + film + "/" + i + ".jpg");
+            casts.add(cast);
+        }
+        return casts;
+    }
+
+    private static Map<String, Object> rawBanner(int i) {
+        Map<String, Object> banner = new HashMap<>();
+        banner.put("image", "https://example.com/banners/" + i + ".jpg");
+        banner.put("name", "Banner " + i);
+        banner.put("genre", "Action, Drama");
+        banner.put("age", "13+");
+        banner.put("year", "2024");
+        banner.put("time", "2h 10min");
+        return banner;
+    }
+}